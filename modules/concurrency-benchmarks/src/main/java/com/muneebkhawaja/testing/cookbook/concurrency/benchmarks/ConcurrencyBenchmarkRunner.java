@@ -0,0 +1,79 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+///
+/// Runs the benchmarks once per (executor, thread count) pair and writes one JSON result file per
+/// run, so results can be compared across traffic profiles without re-running anything.
+///
+/// Thread counts sweep powers of two from 1 up to twice the available processors (plus the
+/// processor count itself). Executors are JMH's `PLATFORM` and `VIRTUAL` worker threads, selected
+/// through the `jmh.executor` property of the forked JVM.
+///
+/// Any other JMH command line option (benchmark regex, `-f`, `-wi`, `-i`, ...) is passed through;
+/// `-t` and `-rff` are overridden by the sweep.
+///
+/// ## Example
+/// ```shell
+/// java -jar modules/concurrency-benchmarks/target/benchmarks.jar HitCounterBenchmark -f 1
+/// ```
+///
+public final class ConcurrencyBenchmarkRunner {
+    private static final String RESULT_DIRECTORY_PROPERTY = "benchmark.results";
+    private static final String DEFAULT_RESULT_DIRECTORY = "target/jmh-results";
+
+    private ConcurrencyBenchmarkRunner() {
+        throw new AssertionError(ConcurrencyBenchmarkRunner.class + " is a static utility class and must not be instantiated.");
+    }
+
+    public static void main(final String[] args) throws CommandLineOptionException, IOException, RunnerException {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        final Path resultDirectory = Path.of(System.getProperty(RESULT_DIRECTORY_PROPERTY, DEFAULT_RESULT_DIRECTORY));
+        Files.createDirectories(resultDirectory);
+        for (final WorkerExecutor executor : WorkerExecutor.values()) {
+            for (final int threads : threadCounts(Runtime.getRuntime().availableProcessors())) {
+                final Path result = resultDirectory.resolve("%s-%d-threads.json".formatted(executor.fileNamePrefix(), threads));
+                final Options options = new OptionsBuilder()
+                        .parent(commandLineOptions)
+                        .threads(threads)
+                        .jvmArgsAppend("-Djmh.executor=" + executor.name())
+                        .resultFormat(ResultFormatType.JSON)
+                        .result(result.toString())
+                        .build();
+                new Runner(options).run();
+            }
+        }
+    }
+
+    static SortedSet<Integer> threadCounts(final int processors) {
+        final int maximum = Math.max(1, processors) * 2;
+        final SortedSet<Integer> threadCounts = new TreeSet<>();
+        for (int threads = 1; threads <= maximum; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(Math.max(1, processors));
+        threadCounts.add(maximum);
+        return threadCounts;
+    }
+
+    private enum WorkerExecutor {
+        PLATFORM,
+        VIRTUAL;
+
+        private String fileNamePrefix() {
+            return name().toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.benchmarks.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.CountMinSketch;
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.HeavyHitterCounter;
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.HitCounter;
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.LockFreeHitCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+///
+/// Approximate (`HeavyHitterCounter`) versus exact (`ConcurrentHashMap` of `LockFreeHitCounter`s)
+/// per-key counting of a skewed key stream, for a small and a large key space.
+///
+/// The `contended` variants run the same stream on four threads, so the few hot keys of the stream
+/// are incremented concurrently; `HeavyHitterCounter` raises the estimates of its candidates without
+/// taking a lock, so it should scale like the exact map.
+///
+/// The exact map grows with the key space while the sketch stays at a fixed size; run with
+/// `-prof gc` to compare allocation. Estimation accuracy is asserted in `HeavyHitterCounterTest`.
+///
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeavyHitterBenchmark {
+    private static final int STREAM_LENGTH = 1 << 16;
+
+    @Param({"1000", "1000000"})
+    private int keySpace;
+
+    private Integer[] stream;
+    private HeavyHitterCounter<Integer> sketch;
+    private ConcurrentMap<Integer, HitCounter> exact;
+
+    @Setup
+    public void setUp() {
+        final SplittableRandom random = new SplittableRandom(42);
+        this.stream = new Integer[STREAM_LENGTH];
+        for (int i = 0; i < STREAM_LENGTH; i++) {
+            // log-uniform, roughly Zipfian: a few keys take most hits
+            stream[i] = (int) Math.pow(keySpace, random.nextDouble()) - 1;
+        }
+        this.sketch = new HeavyHitterCounter<>(CountMinSketch.withErrorBounds(0.001, 0.99), 10);
+        this.exact = new ConcurrentHashMap<>();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        private Integer next(final Integer[] stream) {
+            position = (position + 1) & (STREAM_LENGTH - 1);
+            return stream[position];
+        }
+    }
+
+    @Benchmark
+    public long countMinSketch(final Cursor cursor) {
+        return sketch.increment(cursor.next(stream));
+    }
+
+    @Benchmark
+    public long concurrentHashMap(final Cursor cursor) {
+        return exact.computeIfAbsent(cursor.next(stream), _ -> new LockFreeHitCounter()).incrementLongHits();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long countMinSketchContended(final Cursor cursor) {
+        return countMinSketch(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long concurrentHashMapContended(final Cursor cursor) {
+        return concurrentHashMap(cursor);
+    }
+}
@@ -0,0 +1,55 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.benchmarks.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.HitCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+///
+/// Recording a batch of `batchSize` hits one at a time (`incrementEach`) versus in a single call
+/// (`addHits`). Both record the same number of hits per operation, so the scores compare directly.
+///
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HitCounterBatchBenchmark {
+    @Param
+    private HitCounterType counterType;
+
+    @Param({"1", "10", "100"})
+    private int batchSize;
+
+    private HitCounter counter;
+
+    @Setup
+    public void setUp() {
+        this.counter = counterType.create();
+    }
+
+    @Benchmark
+    public int incrementEach() {
+        int hits = 0;
+        for (int i = 0; i < batchSize; i++) {
+            hits = counter.incrementHits();
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int addHits() {
+        return counter.addHits(batchSize);
+    }
+}
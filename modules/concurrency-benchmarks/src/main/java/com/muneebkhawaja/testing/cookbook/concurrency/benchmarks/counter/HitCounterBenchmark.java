@@ -0,0 +1,52 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.benchmarks.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.HitCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+///
+/// Throughput of a single shared `HitCounter` under a read/write mix.
+///
+/// Each operation is a `getHits()` with probability `readPercentage`% and an `incrementHits()`
+/// otherwise, so `99` models a mostly-read dashboard counter and `1` a hot write path.
+///
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HitCounterBenchmark {
+    @Param
+    private HitCounterType counterType;
+
+    @Param({"99", "50", "1"})
+    private int readPercentage;
+
+    private HitCounter counter;
+
+    @Setup
+    public void setUp() {
+        this.counter = counterType.create();
+    }
+
+    @Benchmark
+    public int mixed() {
+        if (ThreadLocalRandom.current().nextInt(100) < readPercentage) {
+            return counter.getHits();
+        }
+        return counter.incrementHits();
+    }
+}
@@ -0,0 +1,33 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.benchmarks.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.AdaptiveHitCounter;
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.HitCounter;
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.LockFreeHitCounter;
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.MonitorLockHitCounter;
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.PrivateMonitorLockHitCounter;
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.RWLockHitCounter;
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.ReentrantLockHitCounter;
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.StripedHitCounter;
+
+import java.util.function.Supplier;
+
+/// Every `HitCounter` implementation under measurement; used directly as a JMH `@Param`.
+public enum HitCounterType {
+    LOCK_FREE(LockFreeHitCounter::new),
+    MONITOR_LOCK(MonitorLockHitCounter::new),
+    PRIVATE_MONITOR_LOCK(PrivateMonitorLockHitCounter::new),
+    REENTRANT_LOCK(ReentrantLockHitCounter::new),
+    RW_LOCK(RWLockHitCounter::new),
+    STRIPED(StripedHitCounter::new),
+    ADAPTIVE(AdaptiveHitCounter::new);
+
+    private final Supplier<HitCounter> factory;
+
+    HitCounterType(final Supplier<HitCounter> factory) {
+        this.factory = factory;
+    }
+
+    public HitCounter create() {
+        return factory.get();
+    }
+}
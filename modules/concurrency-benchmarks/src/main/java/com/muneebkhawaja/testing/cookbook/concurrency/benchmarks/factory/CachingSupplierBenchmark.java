@@ -0,0 +1,65 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.benchmarks.factory;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.factory.CachingSupplier;
+import com.muneebkhawaja.testing.cookbook.concurrency.factory.CachingSupplierStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+///
+/// Cost of `CachingSupplier.get()` once initialized (`get`) and of the initialization race
+/// itself (`firstGet`).
+///
+/// The supplier is rebuilt before every iteration. `firstGet` runs in single-shot mode, so each
+/// measured iteration is exactly one call per thread against a fresh supplier: one thread pays for
+/// `delegateCost` tokens of work, the others measure how they wait for it.
+///
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachingSupplierBenchmark {
+    /// every strategy `CachingSupplier.of(...)` can build
+    @Param
+    private CachingSupplierStrategy supplierType;
+
+    @Param({"1000"})
+    private long delegateCost;
+
+    private CachingSupplier<Object> supplier;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        this.supplier = supplierType.create(() -> {
+            Blackhole.consumeCPU(delegateCost);
+            return new Object();
+        });
+    }
+
+    @Benchmark
+    public Object get() {
+        return supplier.get();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 50)
+    public Object firstGet() {
+        return supplier.get();
+    }
+}
@@ -0,0 +1,94 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+///
+/// Counter that is as cheap as `LockFreeHitCounter` while uncontended and switches to a
+/// `StripedHitCounter` once it is not.
+///
+/// Increments start as a CAS loop on a single `AtomicLong`. Every failed CAS means another thread
+/// updated the counter at the same time; once more than `contentionThreshold` CAS attempts have
+/// failed, the counter inflates: later increments go to striped cells and the single atomic keeps
+/// the hits it already had. Inflation is one-way.
+///
+/// Failures are tallied in a plain field, so the threshold is approximate under contention, which
+/// is exactly when it gets crossed.
+///
+/// ## Trade-offs
+/// Before inflation it behaves like `LockFreeHitCounter`; after, like `StripedHitCounter`, with one
+/// extra volatile read per operation.
+///
+@Component
+@Scope("prototype")
+@ThreadSafe
+public class AdaptiveHitCounter implements LongHitCounter {
+    private static final int DEFAULT_CONTENTION_THRESHOLD = 64;
+
+    private final AtomicLong base;
+    private final AtomicReference<StripedHitCounter> striped;
+    private final int contentionThreshold;
+    private int casFailures; // racy on purpose: an approximate tally is enough to detect contention
+
+    public AdaptiveHitCounter() {
+        this(DEFAULT_CONTENTION_THRESHOLD);
+    }
+
+    public AdaptiveHitCounter(final int contentionThreshold) {
+        if (contentionThreshold < 0) {
+            throw new IllegalArgumentException("contentionThreshold must not be negative");
+        }
+        this.base = new AtomicLong(0);
+        this.striped = new AtomicReference<>();
+        this.contentionThreshold = contentionThreshold;
+    }
+
+    @Override
+    public long getLongHits() {
+        final StripedHitCounter cells = striped.get();
+        return cells == null ? base.get() : base.get() + cells.getLongHits();
+    }
+
+    @Override
+    public long incrementLongHits() {
+        return addLongHits(1);
+    }
+
+    @Override
+    public long addLongHits(final long delta) {
+        HitCounter.requireNonNegativeDelta(delta);
+        StripedHitCounter cells = striped.get();
+        while (cells == null) {
+            final long current = base.get();
+            if (base.compareAndSet(current, current + delta)) {
+                return current + delta;
+            }
+            recordCasFailure();
+            cells = striped.get();
+        }
+        return base.get() + cells.addLongHits(delta);
+    }
+
+    @Override
+    public long resetLongHits() {
+        final StripedHitCounter cells = striped.get();
+        final long previousHits = base.getAndSet(0);
+        return cells == null ? previousHits : previousHits + cells.resetLongHits();
+    }
+
+    /// Tallies one failed CAS on the base, inflating once more than `contentionThreshold` failed.
+    private void recordCasFailure() {
+        if (++casFailures > contentionThreshold) {
+            striped.compareAndSet(null, new StripedHitCounter());
+        }
+    }
+
+    /// @return whether contention has switched this counter to striped cells
+    public boolean isStriped() {
+        return striped.get() != null;
+    }
+}
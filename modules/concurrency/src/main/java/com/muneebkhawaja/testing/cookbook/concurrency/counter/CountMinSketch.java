@@ -0,0 +1,97 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+///
+/// Approximate per-key hit counts in fixed memory, regardless of how many distinct keys are seen.
+///
+/// A count-min sketch keeps `depth` rows of `width` counters. Every key increments one counter per
+/// row and its estimate is the smallest of those counters, so estimates never under-count. With
+/// `width = ⌈e / ε⌉` and `depth = ⌈ln(1 / (1 - confidence))⌉` an estimate over-counts by at most
+/// `ε × total hits` with the given confidence; see `withErrorBounds(...)`.
+///
+/// Counters are updated with atomic increments, so the sketch is lock-free. Keys are hashed from
+/// their `hashCode()`: keys with equal hash codes always share an estimate.
+///
+@ThreadSafe
+public class CountMinSketch {
+    private final int depth;
+    private final int widthMask;
+    private final AtomicLongArray counters;
+
+    /// @param depth number of rows (independent hash functions); must be at least 1
+    /// @param width counters per row; rounded up to the next power of two
+    public CountMinSketch(final int depth, final int width) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth must be at least 1.");
+        }
+        if (width < 1 || width > (1 << 30)) {
+            throw new IllegalArgumentException("width must be between 1 and 2^30.");
+        }
+        final int roundedWidth = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.depth = depth;
+        this.widthMask = roundedWidth - 1;
+        this.counters = new AtomicLongArray(Math.multiplyExact(depth, roundedWidth));
+    }
+
+    /// @param epsilon    maximum over-count as a fraction of the total hits, e.g. `0.001`
+    /// @param confidence probability that an estimate stays within that bound, e.g. `0.99`
+    public static CountMinSketch withErrorBounds(final double epsilon, final double confidence) {
+        if (epsilon <= 0 || epsilon >= 1) {
+            throw new IllegalArgumentException("epsilon must be between 0 and 1 (exclusive).");
+        }
+        if (confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("confidence must be between 0 and 1 (exclusive).");
+        }
+        final int width = (int) Math.ceil(Math.E / epsilon);
+        final int depth = (int) Math.ceil(Math.log(1 / (1 - confidence)));
+        return new CountMinSketch(depth, width);
+    }
+
+    /// @return adds `delta` hits to `key` and returns its updated estimate
+    public long add(final Object key, final long delta) {
+        HitCounter.requireNonNegativeDelta(delta);
+        final long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(hash, row), delta));
+        }
+        return estimate;
+    }
+
+    /// @return the estimated number of hits for `key`; never less than the true count
+    public long estimate(final Object key) {
+        final long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int width() {
+        return widthMask + 1;
+    }
+
+    private int index(final long hash, final int row) {
+        // Kirsch-Mitzenmacher: row hashes derived from two halves of one 64-bit hash
+        final int first = (int) hash;
+        final int second = (int) (hash >>> 32) | 1;
+        return row * (widthMask + 1) + ((first + row * second) & widthMask);
+    }
+
+    private static long hash(final Object key) {
+        // SplitMix64 finalizer spreads hashCode() over 64 bits
+        long hash = Objects.requireNonNull(key, "key must not be null!").hashCode() * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,211 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+///
+/// Tracks the `k` most frequent keys (heavy hitters, e.g. client IPs or URLs) in fixed memory.
+///
+/// Counts come from a `CountMinSketch`, so memory does not grow with key cardinality and
+/// `estimate(key)` may over-count. The `k` candidates with the highest estimates are kept in a
+/// `ConcurrentHashMap`; an increment of a key that already is a candidate raises its estimate without
+/// taking a lock, so the hot keys of a skewed stream never contend on the candidate table.
+///
+/// Only a key that is not a candidate yet, and whose estimate beats the smallest candidate, takes the
+/// table's lock to replace that candidate. The smallest candidate is found through a binary min-heap
+/// ordered by the estimate each candidate had when the heap last looked at it. Estimates only grow, so
+/// the heap re-reads the root's current estimate and sifts it down until the root is up to date, at
+/// which point it is the true minimum; admission and eviction cost `O(log k)` amortized and allocate
+/// nothing but the new candidate.
+///
+/// ## Example
+/// ```java
+/// final HeavyHitterCounter<String> topClients = new HeavyHitterCounter<>(CountMinSketch.withErrorBounds(0.001, 0.99), 10);
+/// topClients.increment(clientIp);
+/// final List<HeavyHitterCounter.HeavyHitter<String>> heavyHitters = topClients.topK();
+/// ```
+///
+@ThreadSafe
+public class HeavyHitterCounter<K> {
+    private final CountMinSketch sketch;
+    private final int k;
+    private final ConcurrentMap<K, Candidate<K>> candidates;
+    private final ReentrantLock lock;
+    @GuardedBy("lock")
+    private final Candidate<K>[] heap;
+    @GuardedBy("lock")
+    private int heapSize;
+    /// Smallest estimate in a full candidate table; zero while it still has room.
+    private volatile long admissionThreshold;
+
+    @SuppressWarnings("unchecked")
+    public HeavyHitterCounter(final CountMinSketch sketch, final int k) {
+        this.sketch = Objects.requireNonNull(sketch, "sketch must not be null!");
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1.");
+        }
+        this.k = k;
+        this.candidates = new ConcurrentHashMap<>(k);
+        this.lock = new ReentrantLock();
+        this.heap = (Candidate<K>[]) new Candidate[k];
+        this.heapSize = 0;
+        this.admissionThreshold = 0;
+    }
+
+    /// @return increments `key` by one and returns its updated estimate
+    public long increment(final K key) {
+        final long estimate = sketch.add(key, 1);
+        final Candidate<K> candidate = candidates.get(key);
+        if (candidate != null) {
+            candidate.raise(estimate);
+        } else if (estimate > admissionThreshold) {
+            offer(key, estimate);
+        }
+        return estimate;
+    }
+
+    /// @return the estimated number of hits for `key`; never less than the true count
+    public long estimate(final K key) {
+        return sketch.estimate(key);
+    }
+
+    /// @return up to `k` keys with the highest estimates, most frequent first
+    public List<HeavyHitter<K>> topK() {
+        final List<HeavyHitter<K>> heavyHitters = new ArrayList<>(k);
+        lock.lock();
+        try {
+            for (int i = 0; i < heapSize; i++) {
+                heavyHitters.add(new HeavyHitter<>(heap[i].key(), heap[i].estimate()));
+            }
+        } finally {
+            lock.unlock();
+        }
+        heavyHitters.sort(Comparator.comparingLong(HeavyHitter<K>::estimate).reversed());
+        return List.copyOf(heavyHitters);
+    }
+
+    private void offer(final K key, final long estimate) {
+        lock.lock();
+        try {
+            final Candidate<K> existing = candidates.get(key);
+            if (existing != null) { // admitted by another thread since the lock-free lookup
+                existing.raise(estimate);
+                return;
+            }
+            if (heapSize < k) {
+                final Candidate<K> candidate = new Candidate<>(key, estimate);
+                heap[heapSize] = candidate;
+                siftUp(heapSize++);
+                candidates.put(key, candidate);
+            } else {
+                final Candidate<K> smallest = smallestCandidate();
+                if (estimate <= smallest.estimate()) {
+                    return;
+                }
+                candidates.remove(smallest.key(), smallest);
+                final Candidate<K> candidate = new Candidate<>(key, estimate);
+                heap[0] = candidate;
+                siftDown(0);
+                candidates.put(key, candidate);
+            }
+            if (heapSize == k) {
+                admissionThreshold = smallestCandidate().estimate();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// Brings the root up to date until it holds the candidate with the smallest current estimate.
+    @GuardedBy("lock")
+    private Candidate<K> smallestCandidate() {
+        while (heap[0].refresh()) {
+            siftDown(0);
+        }
+        return heap[0];
+    }
+
+    @GuardedBy("lock")
+    private void siftUp(int index) {
+        final Candidate<K> candidate = heap[index];
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (heap[parent].heapEstimate <= candidate.heapEstimate) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = candidate;
+    }
+
+    @GuardedBy("lock")
+    private void siftDown(int index) {
+        final Candidate<K> candidate = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1].heapEstimate < heap[child].heapEstimate) {
+                child++;
+            }
+            if (candidate.heapEstimate <= heap[child].heapEstimate) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = candidate;
+    }
+
+    public record HeavyHitter<K>(K key, long estimate) {
+    }
+
+    private static final class Candidate<K> {
+        private final K key;
+        private final AtomicLong estimate;
+        /// The estimate the heap is ordered by; never more than `estimate`. Guarded by the counter's lock.
+        private long heapEstimate;
+
+        private Candidate(final K key, final long estimate) {
+            this.key = key;
+            this.estimate = new AtomicLong(estimate);
+            this.heapEstimate = estimate;
+        }
+
+        private K key() {
+            return key;
+        }
+
+        private long estimate() {
+            return estimate.get();
+        }
+
+        private void raise(final long newEstimate) {
+            long current = estimate.get();
+            while (current < newEstimate && !estimate.weakCompareAndSetVolatile(current, newEstimate)) {
+                current = estimate.get();
+            }
+        }
+
+        /// @return whether the heap position was stale, i.e. the estimate grew since it was placed
+        private boolean refresh() {
+            final long current = estimate.get();
+            if (current == heapEstimate) {
+                return false;
+            }
+            heapEstimate = current;
+            return true;
+        }
+    }
+}
@@ -19,4 +19,78 @@ public interface HitCounter {
      * @return resets the counter to zero and returns the previous value
      */
     int resetHits();
+
+    /**
+     * Falls back to one {@link #incrementHits()} per hit; implementations should override it to
+     * apply the whole batch with a single synchronization.
+     *
+     * @param delta number of hits to add; must not be negative
+     * @return adds {@code delta} hits to the counter and returns the updated value
+     * @throws IllegalArgumentException if {@code delta} is negative
+     */
+    default int addHits(final int delta) {
+        requireNonNegativeDelta(delta);
+        int hits = getHits();
+        for (int i = 0; i < delta; i++) {
+            hits = incrementHits();
+        }
+        return hits;
+    }
+
+    /**
+     *
+     * @return the current counter value, widened to 64 bits
+     * @see LongHitCounter
+     */
+    default long getLongHits() {
+        return getHits();
+    }
+
+    /**
+     *
+     * @return increments the counter by one and returns the updated value, widened to 64 bits
+     * @see LongHitCounter
+     */
+    default long incrementLongHits() {
+        return incrementHits();
+    }
+
+    /**
+     * Falls back to one {@link #incrementLongHits()} per hit; {@link LongHitCounter} implementations
+     * apply the whole batch with a single synchronization.
+     *
+     * @param delta number of hits to add; must not be negative
+     * @return adds {@code delta} hits to the counter and returns the updated value, widened to 64 bits
+     * @throws IllegalArgumentException if {@code delta} is negative
+     * @see LongHitCounter
+     */
+    default long addLongHits(final long delta) {
+        requireNonNegativeDelta(delta);
+        long hits = getLongHits();
+        for (long i = 0; i < delta; i++) {
+            hits = incrementLongHits();
+        }
+        return hits;
+    }
+
+    /**
+     *
+     * @return resets the counter to zero and returns the previous value, widened to 64 bits
+     * @see LongHitCounter
+     */
+    default long resetLongHits() {
+        return resetHits();
+    }
+
+    /**
+     * The argument check of every {@code addHits} and {@code addLongHits} implementation.
+     *
+     * @param delta number of hits to add
+     * @throws IllegalArgumentException if {@code delta} is negative
+     */
+    static void requireNonNegativeDelta(final long delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("delta must not be negative");
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+///
+/// JFR event for a slow `InstrumentedHitCounter` operation. The event's duration covers the whole
+/// operation; only operations slower than the threshold (1 ms unless the recording overrides it) are
+/// committed.
+///
+@Name("com.muneebkhawaja.testing.cookbook.concurrency.HitCounterContention")
+@Label("Hit Counter Contention")
+@Description("A hit counter operation that waited for, or held, its lock for longer than the threshold")
+@Category({"Testing Cookbook", "Concurrency"})
+@Threshold("1 ms")
+class HitCounterContentionEvent extends Event {
+    @Label("Counter")
+    String counter;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Lock Wait Time")
+    @Description("Zero if the counter has no explicit lock")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitTime;
+
+    @Label("Lock Hold Time")
+    @Description("Zero if the counter has no explicit lock")
+    @Timespan(Timespan.NANOSECONDS)
+    long holdTime;
+
+    @Label("Queue Length")
+    @Description("Threads waiting for the lock when the operation started; -1 if the counter has no explicit lock")
+    int queueLength;
+}
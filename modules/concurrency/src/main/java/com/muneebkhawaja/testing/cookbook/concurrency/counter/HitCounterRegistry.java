@@ -0,0 +1,103 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.eviction.ClockEvictingMap;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+///
+/// Per-key hit counters (e.g. per endpoint or per tenant) backed by any `HitCounter` strategy.
+///
+/// ## Fast path
+/// Existing keys are resolved with a plain `ConcurrentHashMap.get`, which takes no lock and
+/// allocates nothing. Only the first hit for a key goes through `computeIfAbsent`, using the single
+/// mapping function `ClockEvictingMap` builds once per registry.
+///
+/// ## Eviction
+/// Before a new key would take the registry past `maximumKeys` keys, cold keys are evicted by the
+/// CLOCK (second chance) sweep of `ClockEvictingMap`: every hit on an existing key marks it as
+/// referenced, and the sweep clears that mark or evicts keys that were not hit since they were
+/// added or last swept. Keys hit only once are therefore the first to go.
+///
+/// `maximumKeys` is a soft bound: a thread that finds another one already sweeping adds its key
+/// without waiting, so under a burst of new keys the registry may briefly hold a few more.
+/// Hits of evicted keys are added to `getEvictedHits()`; a hit that races with the eviction of
+/// its own key may be lost.
+///
+/// ## Example
+/// ```java
+/// final HitCounterRegistry<String> hitsPerEndpoint = new HitCounterRegistry<>(StripedHitCounter::new, 10_000);
+/// hitsPerEndpoint.incrementHits("/events");
+/// final Map<String, Long> export = hitsPerEndpoint.drain();
+/// ```
+///
+@ThreadSafe
+public class HitCounterRegistry<K> {
+    private final ClockEvictingMap<K, HitCounter> counters;
+    private final LongAdder evictedHits;
+
+    public HitCounterRegistry(final Supplier<? extends HitCounter> counterFactory, final int maximumKeys) {
+        Objects.requireNonNull(counterFactory, "counterFactory must not be null!");
+        if (maximumKeys < 1) {
+            throw new IllegalArgumentException("maximumKeys must be at least 1.");
+        }
+        this.evictedHits = new LongAdder();
+        this.counters = new ClockEvictingMap<>(maximumKeys, _ -> counterFactory.get(), _ -> false,
+                (_, counter) -> evictedHits.add(counter.resetLongHits()));
+    }
+
+    /// @return the counter for `key`, creating it on first use
+    public HitCounter counter(final K key) {
+        return counters.getOrCreate(key);
+    }
+
+    /// @return increments the counter for `key` by one and returns the updated value
+    public long incrementHits(final K key) {
+        return counter(key).incrementLongHits();
+    }
+
+    /// @return adds `delta` hits to the counter for `key` and returns the updated value
+    public long addHits(final K key, final int delta) {
+        return counter(key).addLongHits(delta);
+    }
+
+    /// @return the current value for `key`, or zero if the key has no counter; never creates one
+    public long getHits(final K key) {
+        final HitCounter counter = counters.peek(key);
+        return counter == null ? 0 : counter.getLongHits();
+    }
+
+    /// @return the number of keys currently tracked
+    public int size() {
+        return counters.size();
+    }
+
+    /// @return the total number of hits discarded by evicting cold keys
+    public long getEvictedHits() {
+        return evictedHits.sum();
+    }
+
+    /// @return the current value of every counter; each value is read independently
+    public Map<K, Long> snapshot() {
+        return collect(HitCounter::getLongHits);
+    }
+
+    /// Resets every counter and returns the values it held, so consecutive drains export disjoint
+    /// hits. Keys stay registered.
+    ///
+    /// @return the value of every counter before it was reset
+    public Map<K, Long> drain() {
+        return collect(HitCounter::resetLongHits);
+    }
+
+    private Map<K, Long> collect(final ToLongFunction<HitCounter> reader) {
+        final Map<K, Long> values = new HashMap<>();
+        counters.forEach((key, counter) -> values.put(key, reader.applyAsLong(counter)));
+        return Map.copyOf(values);
+    }
+}
@@ -0,0 +1,179 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.metrics.ConcurrentHistogram;
+import net.jcip.annotations.ThreadSafe;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+///
+/// Decorator that measures how long every operation of a `HitCounter` takes, to tell a queue of
+/// waiting threads apart from a lock that is simply hot, without attaching a profiler.
+///
+/// Every operation is timed into `getLatencies()`. When the delegate guards its count with an explicit
+/// lock (`ReentrantLockHitCounter`, `RWLockHitCounter`) the decorator installs itself as the listener
+/// of the delegate's `LockContentionProbe`, so the delegate reports from its own lock and unlock sites
+/// - `getWaitTimes()`: nanoseconds spent acquiring the lock,
+/// - `getHoldTimes()`: nanoseconds the lock was held, and
+/// - `getQueueLengths()`: threads already waiting when the operation started.
+///
+/// Counters guarded by monitors or by no lock at all only report latencies. A delegate reports to
+/// one decorator at a time; wrapping it again moves its lock statistics to the newest decorator.
+///
+/// Operations slower than the threshold of `HitCounterContentionEvent` are also emitted as JFR
+/// events, e.g. `jcmd <pid> JFR.start` and look for *Hit Counter Contention*.
+///
+/// ## Example
+/// ```java
+/// final InstrumentedHitCounter counter = new InstrumentedHitCounter(new ReentrantLockHitCounter());
+/// counter.incrementHits();
+/// final long p99WaitNanos = counter.getWaitTimes().valueAtPercentile(99);
+/// ```
+///
+@ThreadSafe
+public class InstrumentedHitCounter implements LongHitCounter {
+    private final HitCounter delegate;
+    private final ConcurrentHistogram latencies;
+    private final ConcurrentHistogram waitTimes;
+    private final ConcurrentHistogram holdTimes;
+    private final ConcurrentHistogram queueLengths;
+    /// Lock statistics of the operation in progress on each thread; `null` for delegates without a probe.
+    private final @Nullable ThreadLocal<LockSample> samples;
+
+    public InstrumentedHitCounter(final HitCounter delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null!");
+        this.latencies = new ConcurrentHistogram();
+        this.waitTimes = new ConcurrentHistogram();
+        this.holdTimes = new ConcurrentHistogram();
+        this.queueLengths = new ConcurrentHistogram();
+        final LockContentionProbe probe = switch (delegate) {
+            case ReentrantLockHitCounter counter -> counter.contentionProbe();
+            case RWLockHitCounter counter -> counter.contentionProbe();
+            default -> null;
+        };
+        if (probe == null) {
+            this.samples = null;
+        } else {
+            final ThreadLocal<LockSample> perThread = ThreadLocal.withInitial(LockSample::new);
+            this.samples = perThread;
+            probe.listen(new LockContentionProbe.Listener() {
+                @Override
+                public void lockAcquired(final long waitTime, final int queueLength) {
+                    final LockSample sample = perThread.get();
+                    sample.waitTime = waitTime;
+                    sample.queueLength = queueLength;
+                }
+
+                @Override
+                public void lockReleased(final long holdTime) {
+                    final LockSample sample = perThread.get();
+                    sample.holdTime = holdTime;
+                    sample.complete = true;
+                }
+            });
+        }
+    }
+
+    @Override
+    public long getLongHits() {
+        return measure("getHits", delegate::getLongHits);
+    }
+
+    @Override
+    public long incrementLongHits() {
+        return measure("incrementHits", delegate::incrementLongHits);
+    }
+
+    /// A delegate that only counts with `int`s receives a `delta` above `Integer.MAX_VALUE` as several
+    /// `addHits` calls, so another thread may observe the batch partially applied.
+    @Override
+    public long addLongHits(final long delta) {
+        HitCounter.requireNonNegativeDelta(delta);
+        if (delegate instanceof LongHitCounter longDelegate) {
+            return measure("addHits", () -> longDelegate.addLongHits(delta));
+        }
+        return measure("addHits", () -> {
+            long remaining = delta;
+            while (remaining > Integer.MAX_VALUE) {
+                delegate.addHits(Integer.MAX_VALUE);
+                remaining -= Integer.MAX_VALUE;
+            }
+            return delegate.addHits((int) remaining);
+        });
+    }
+
+    @Override
+    public long resetLongHits() {
+        return measure("resetHits", delegate::resetLongHits);
+    }
+
+    /// @return nanoseconds per operation, for every kind of delegate
+    public ConcurrentHistogram getLatencies() {
+        return latencies;
+    }
+
+    /// @return nanoseconds spent acquiring the delegate's lock; empty unless it has an explicit lock
+    public ConcurrentHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    /// @return nanoseconds the delegate's lock was held; empty unless it has an explicit lock
+    public ConcurrentHistogram getHoldTimes() {
+        return holdTimes;
+    }
+
+    /// @return threads waiting for the delegate's lock per operation; empty unless it has an explicit lock
+    public ConcurrentHistogram getQueueLengths() {
+        return queueLengths;
+    }
+
+    private long measure(final String operation, final LongSupplier action) {
+        final HitCounterContentionEvent event = new HitCounterContentionEvent();
+        event.begin();
+        final @Nullable LockSample sample = samples == null ? null : samples.get();
+        if (sample != null) {
+            sample.complete = false;
+        }
+        final long start = System.nanoTime();
+        try {
+            return action.getAsLong();
+        } finally {
+            latencies.record(System.nanoTime() - start);
+            if (sample != null && sample.complete) {
+                waitTimes.record(sample.waitTime);
+                holdTimes.record(sample.holdTime);
+                queueLengths.record(sample.queueLength);
+                commit(event, operation, sample.waitTime, sample.holdTime, sample.queueLength);
+            } else {
+                commit(event, operation, 0, 0, -1);
+            }
+        }
+    }
+
+    private void commit(
+            final HitCounterContentionEvent event,
+            final String operation,
+            final long waitTime,
+            final long holdTime,
+            final int queueLength
+    ) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.counter = delegate.getClass().getSimpleName();
+            event.operation = operation;
+            event.waitTime = waitTime;
+            event.holdTime = holdTime;
+            event.queueLength = queueLength;
+            event.commit();
+        }
+    }
+
+    /// Filled in by the delegate's lock and unlock sites during a single operation.
+    private static final class LockSample {
+        private long waitTime;
+        private long holdTime;
+        private int queueLength;
+        private boolean complete;
+    }
+}
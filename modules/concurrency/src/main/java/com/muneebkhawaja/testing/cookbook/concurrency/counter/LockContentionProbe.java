@@ -0,0 +1,70 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import net.jcip.annotations.ThreadSafe;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.function.IntSupplier;
+
+///
+/// Optional contention hook of a counter guarded by an explicit lock (`ReentrantLockHitCounter`,
+/// `RWLockHitCounter`). The counter takes and releases its private lock through `lock` and `unlock`;
+/// once `InstrumentedHitCounter` installs a `Listener`, those calls also report how long the lock was
+/// waited for and held, and how many threads were already queued for it.
+///
+/// Without a listener `lock` and `unlock` only read one volatile field on top of the lock itself.
+///
+@ThreadSafe
+final class LockContentionProbe {
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final IntSupplier queueLength;
+    private volatile @Nullable Listener listener;
+
+    /// @param queueLength estimates the number of threads waiting for the counter's lock
+    LockContentionProbe(final IntSupplier queueLength) {
+        this.queueLength = Objects.requireNonNull(queueLength, "queueLength must not be null!");
+        this.listener = null;
+    }
+
+    /// Installs `listener`, replacing any earlier one; `null` stops reporting.
+    void listen(final @Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /// Acquires `lock`, reporting the wait to the listener if there is one.
+    ///
+    /// @return the token to pass to `unlock`
+    long lock(final Lock lock) {
+        final Listener current = listener;
+        if (current == null) {
+            lock.lock();
+            return NOT_TIMED;
+        }
+        final int queued = queueLength.getAsInt();
+        final long requested = System.nanoTime();
+        lock.lock();
+        final long acquired = System.nanoTime();
+        current.lockAcquired(acquired - requested, queued);
+        return acquired;
+    }
+
+    /// Releases `lock`, reporting how long it was held if `lock` timed the acquisition.
+    void unlock(final Lock lock, final long token) {
+        lock.unlock();
+        final Listener current = listener;
+        if (current != null && token != NOT_TIMED) {
+            current.lockReleased(System.nanoTime() - token);
+        }
+    }
+
+    /// Receives the contention of every operation, on the thread that performs it.
+    interface Listener {
+        /// Called while the lock is held, so it must be cheap and must not touch the counter.
+        void lockAcquired(long waitTime, int queueLength);
+
+        /// Called right after the lock was released.
+        void lockReleased(long holdTime);
+    }
+}
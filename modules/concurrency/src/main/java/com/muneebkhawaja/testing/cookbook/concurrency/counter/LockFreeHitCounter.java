@@ -5,31 +5,37 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Primary
 @Component
 @Scope("prototype")
 @ThreadSafe
-public class LockFreeHitCounter implements HitCounter {
-    private final AtomicInteger hits;
+public class LockFreeHitCounter implements LongHitCounter {
+    private final AtomicLong hits;
 
     public LockFreeHitCounter() {
-        this.hits = new AtomicInteger(0);
+        this.hits = new AtomicLong(0);
     }
 
     @Override
-    public int getHits() {
+    public long getLongHits() {
         return hits.get();
     }
 
     @Override
-    public int incrementHits() {
+    public long incrementLongHits() {
         return hits.incrementAndGet();
     }
 
     @Override
-    public int resetHits() {
+    public long addLongHits(final long delta) {
+        HitCounter.requireNonNegativeDelta(delta);
+        return hits.addAndGet(delta);
+    }
+
+    @Override
+    public long resetLongHits() {
         return hits.getAndSet(0);
     }
 }
@@ -0,0 +1,52 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+/**
+ * A {@link HitCounter} that counts with 64 bits, so long-running processes never need periodic resets.
+ * <p>
+ * The {@code int} methods are views over the 64-bit count: once it passes {@link Integer#MAX_VALUE}
+ * they saturate at {@link Integer#MAX_VALUE} instead of wrapping around to negative values.
+ * Callers that may exceed that many hits should use the {@code long} methods.
+ */
+public interface LongHitCounter extends HitCounter {
+    @Override
+    long getLongHits();
+
+    @Override
+    long incrementLongHits();
+
+    @Override
+    long resetLongHits();
+
+    /**
+     *
+     * @param delta number of hits to add; must not be negative
+     * @return adds {@code delta} hits to the counter and returns the updated value
+     * @throws IllegalArgumentException if {@code delta} is negative
+     */
+    @Override
+    long addLongHits(long delta);
+
+    @Override
+    default int getHits() {
+        return saturatedCast(getLongHits());
+    }
+
+    @Override
+    default int incrementHits() {
+        return saturatedCast(incrementLongHits());
+    }
+
+    @Override
+    default int resetHits() {
+        return saturatedCast(resetLongHits());
+    }
+
+    @Override
+    default int addHits(final int delta) {
+        return saturatedCast(addLongHits(delta));
+    }
+
+    private static int saturatedCast(final long hits) {
+        return (int) Math.min(hits, Integer.MAX_VALUE);
+    }
+}
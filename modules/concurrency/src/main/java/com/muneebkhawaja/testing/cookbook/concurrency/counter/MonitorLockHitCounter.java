@@ -8,29 +8,36 @@ import org.springframework.stereotype.Component;
 @Component
 @Scope("prototype")
 @ThreadSafe
-public class MonitorLockHitCounter implements HitCounter {
+public class MonitorLockHitCounter implements LongHitCounter {
     @GuardedBy("this")
-    private int hits;
+    private long hits;
 
     public MonitorLockHitCounter() {
         this.hits = 0;
     }
 
     @Override
-    public synchronized int getHits() {
+    public synchronized long getLongHits() {
         return hits;
     }
 
     @Override
-    public synchronized int incrementHits() {
+    public synchronized long incrementLongHits() {
         hits++;
         return hits;
 
     }
 
     @Override
-    public synchronized int resetHits() {
-        final int previousHits = hits;
+    public synchronized long addLongHits(final long delta) {
+        HitCounter.requireNonNegativeDelta(delta);
+        hits += delta;
+        return hits;
+    }
+
+    @Override
+    public synchronized long resetLongHits() {
+        final long previousHits = hits;
         hits = 0;
         return previousHits;
     }
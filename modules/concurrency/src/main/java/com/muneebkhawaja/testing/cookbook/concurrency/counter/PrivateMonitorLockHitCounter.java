@@ -8,10 +8,10 @@ import org.springframework.stereotype.Component;
 @Component
 @Scope("prototype")
 @ThreadSafe
-public class PrivateMonitorLockHitCounter implements HitCounter {
+public class PrivateMonitorLockHitCounter implements LongHitCounter {
     private final Object lock;
     @GuardedBy("lock")
-    private int hits;
+    private long hits;
 
     public PrivateMonitorLockHitCounter() {
         this.lock = new Object();
@@ -19,14 +19,14 @@ public class PrivateMonitorLockHitCounter implements HitCounter {
     }
 
     @Override
-    public int getHits() {
+    public long getLongHits() {
         synchronized (this.lock) {
             return hits;
         }
     }
 
     @Override
-    public int incrementHits() {
+    public long incrementLongHits() {
         synchronized (this.lock) {
             hits++;
             return hits;
@@ -34,11 +34,20 @@ public class PrivateMonitorLockHitCounter implements HitCounter {
         }
     }
 
+    @Override
+    public long addLongHits(final long delta) {
+        HitCounter.requireNonNegativeDelta(delta);
+        synchronized (this.lock) {
+            hits += delta;
+            return hits;
+        }
+    }
+
 
     @Override
-    public int resetHits() {
+    public long resetLongHits() {
         synchronized (this.lock) {
-            final int previousHits = hits;
+            final long previousHits = hits;
             hits = 0;
             return previousHits;
         }
@@ -5,53 +5,71 @@ import net.jcip.annotations.ThreadSafe;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Component
 @Scope("prototype")
 @ThreadSafe
-public class RWLockHitCounter implements HitCounter {
-    private final ReadWriteLock lock;
+public class RWLockHitCounter implements LongHitCounter {
+    private final ReentrantReadWriteLock lock;
+    private final LockContentionProbe contention;
     @GuardedBy("lock")
-    private int hits;
+    private long hits;
 
     public RWLockHitCounter() {
         this.lock = new ReentrantReadWriteLock();
+        this.contention = new LockContentionProbe(lock::getQueueLength);
         this.hits = 0;
     }
 
     @Override
-    public int getHits() {
-        lock.readLock().lock();
+    public long getLongHits() {
+        final long token = contention.lock(lock.readLock());
         try {
             return hits;
         } finally {
-            lock.readLock().unlock();
+            contention.unlock(lock.readLock(), token);
         }
     }
 
     @Override
-    public int incrementHits() {
-        lock.writeLock().lock();
+    public long incrementLongHits() {
+        final long token = contention.lock(lock.writeLock());
         try {
             hits++;
             return hits;
         } finally {
-            lock.writeLock().unlock();
+            contention.unlock(lock.writeLock(), token);
         }
 
     }
 
     @Override
-    public int resetHits() {
-        lock.writeLock().lock();
+    public long addLongHits(final long delta) {
+        HitCounter.requireNonNegativeDelta(delta);
+        final long token = contention.lock(lock.writeLock());
         try {
-            final int previousHits = hits;
+            hits += delta;
+            return hits;
+        } finally {
+            contention.unlock(lock.writeLock(), token);
+        }
+    }
+
+    @Override
+    public long resetLongHits() {
+        final long token = contention.lock(lock.writeLock());
+        try {
+            final long previousHits = hits;
             hits = 0;
             return previousHits;
         } finally {
-            lock.writeLock().unlock();
+            contention.unlock(lock.writeLock(), token);
         }
     }
+
+    /// @return the hook `InstrumentedHitCounter` uses to time this counter's lock
+    LockContentionProbe contentionProbe() {
+        return contention;
+    }
 }
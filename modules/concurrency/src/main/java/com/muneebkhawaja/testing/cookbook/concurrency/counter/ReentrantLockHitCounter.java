@@ -6,52 +6,70 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Component
 @Scope("prototype")
 @ThreadSafe
-public class ReentrantLockHitCounter implements HitCounter {
+public class ReentrantLockHitCounter implements LongHitCounter {
     private final ReentrantLock lock;
+    private final LockContentionProbe contention;
     @GuardedBy("lock")
-    private int hits;
+    private long hits;
 
     public ReentrantLockHitCounter() {
         this.lock = new ReentrantLock();
+        this.contention = new LockContentionProbe(lock::getQueueLength);
         this.hits = 0;
     }
 
     @Override
-    public int getHits() {
-        lock.lock();
+    public long getLongHits() {
+        final long token = contention.lock(lock);
         try {
             return hits;
         } finally {
-            lock.unlock();
+            contention.unlock(lock, token);
         }
     }
 
     @Override
-    public int incrementHits() {
-        lock.lock();
+    public long incrementLongHits() {
+        final long token = contention.lock(lock);
         try {
             hits++;
             return hits;
         } finally {
-            lock.unlock();
+            contention.unlock(lock, token);
         }
 
     }
 
     @Override
-    public int resetHits() {
-        lock.lock();
+    public long addLongHits(final long delta) {
+        HitCounter.requireNonNegativeDelta(delta);
+        final long token = contention.lock(lock);
         try {
-            final int previousHits = hits;
+            hits += delta;
+            return hits;
+        } finally {
+            contention.unlock(lock, token);
+        }
+    }
+
+    @Override
+    public long resetLongHits() {
+        final long token = contention.lock(lock);
+        try {
+            final long previousHits = hits;
             hits = 0;
             return previousHits;
         } finally {
-            lock.unlock();
+            contention.unlock(lock, token);
         }
     }
+
+    /// @return the hook `InstrumentedHitCounter` uses to time this counter's lock
+    LockContentionProbe contentionProbe() {
+        return contention;
+    }
 }
@@ -0,0 +1,251 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+///
+/// A region of named hit counters in a memory-mapped file, shared by every process that maps it.
+///
+/// Worker JVMs on the same host open the same file and increment the same counters without a
+/// network hop: all reads and writes are atomic `VarHandle` operations on the mapped memory, so
+/// they are lock-free across threads *and* processes.
+///
+/// ## Layout
+/// The file is a 64 byte header followed by `capacity` slots of 64 bytes, one cache line each so
+/// that counters never share a line:
+/// ```
+/// header: magic (8) | capacity (8) | unused (48)
+/// slot:   hits (8)  | state (8) | name (48, UTF-8)
+/// ```
+/// A slot's `state` is `0` while empty, `-1` while a process is writing its name, and the name's
+/// length once it is ready. A name is hashed to its first slot and claimed with a CAS on `state`,
+/// probing linearly on collisions, so any process resolves a name to the same slot.
+///
+/// The file is created and its header written under an exclusive `FileLock`, so processes that
+/// open it at the same time agree on one capacity; opening an existing file checks that its size
+/// matches the capacity in its header.
+///
+/// ## Limitations
+/// - Counters cannot be removed, and a name may use at most 48 bytes of UTF-8.
+/// - A process that dies halfway through claiming a slot leaves it in the `-1` state. Resolving a
+///   name that probes through such a slot fails after `CLAIM_TIMEOUT`; once no process is
+///   claiming slots, `releaseAbandonedClaims()` frees them again.
+///
+/// ## Example
+/// ```java
+/// try (SharedMemoryHitCounters counters = SharedMemoryHitCounters.open(Path.of("/dev/shm/hits"), 1024)) {
+///     counters.counter("/events").incrementHits();
+/// }
+/// ```
+///
+@ThreadSafe
+public final class SharedMemoryHitCounters implements AutoCloseable {
+    private static final int SLOT_SIZE = 64;
+    private static final int MAXIMUM_NAME_LENGTH = 48;
+    private static final long MAGIC = 0x48_49_54_43_4E_54_52_31L; // "HITCNTR1"
+    private static final long HEADER_SIZE = SLOT_SIZE;
+    private static final long CAPACITY_OFFSET = 8;
+    private static final long HITS_OFFSET = 0;
+    private static final long STATE_OFFSET = 8;
+    private static final long NAME_OFFSET = 16;
+    private static final long EMPTY = 0;
+    private static final long CLAIMING = -1;
+    private static final VarHandle LONG = ValueLayout.JAVA_LONG.varHandle();
+    /// How long to wait for another process to finish claiming a slot before giving up on it.
+    public static final Duration CLAIM_TIMEOUT = Duration.ofSeconds(1);
+    /// `FileLock`s are held per JVM, so opens within one JVM must not overlap.
+    private static final Object OPEN_LOCK = new Object();
+
+    private final Arena arena;
+    private final MemorySegment region;
+    private final int capacity;
+
+    private SharedMemoryHitCounters(final Arena arena, final MemorySegment region) {
+        this.arena = arena;
+        this.region = region;
+        this.capacity = (int) ((region.byteSize() - HEADER_SIZE) / SLOT_SIZE);
+    }
+
+    /// Maps `path`, creating it with room for `capacity` counters if it does not exist yet. An
+    /// existing file keeps the capacity recorded in its header, whatever `capacity` is passed.
+    ///
+    /// @throws IOException          if the file cannot be created, locked or mapped
+    /// @throws IllegalStateException if the file exists but is not a counter region, or its size
+    ///                               does not match its header
+    public static SharedMemoryHitCounters open(final Path path, final int capacity) throws IOException {
+        Objects.requireNonNull(path, "path must not be null!");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1.");
+        }
+        final Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            synchronized (OPEN_LOCK) {
+                try (FileLock _ = channel.lock()) {
+                    return new SharedMemoryHitCounters(arena, channel.size() == 0
+                            ? create(channel, capacity, arena)
+                            : mapExisting(channel, path, arena));
+                }
+            }
+        } catch (final IOException | RuntimeException exception) {
+            arena.close();
+            throw exception;
+        }
+    }
+
+    /// Requires holding the file lock.
+    private static MemorySegment create(final FileChannel channel, final int capacity, final Arena arena) throws IOException {
+        final MemorySegment region = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE, arena);
+        LONG.setVolatile(region, CAPACITY_OFFSET, (long) capacity);
+        LONG.setVolatile(region, 0L, MAGIC); // written last: a file with the magic has a valid header
+        region.force();
+        return region;
+    }
+
+    /// Requires holding the file lock.
+    private static MemorySegment mapExisting(final FileChannel channel, final Path path, final Arena arena) throws IOException {
+        final long size = channel.size();
+        if (size < HEADER_SIZE + SLOT_SIZE) {
+            throw new IllegalStateException("Not a hit counter region: " + path);
+        }
+        final MemorySegment region = channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+        if ((long) LONG.getVolatile(region, 0L) != MAGIC) {
+            throw new IllegalStateException("Not a hit counter region: " + path);
+        }
+        final long capacity = (long) LONG.getVolatile(region, CAPACITY_OFFSET);
+        if (capacity < 1 || capacity > Integer.MAX_VALUE || size != HEADER_SIZE + capacity * SLOT_SIZE) {
+            throw new IllegalStateException("Hit counter region " + path + " has " + size
+                    + " bytes but a header capacity of " + capacity);
+        }
+        return region;
+    }
+
+    /// @return the counter called `name`, claiming a slot for it if no process has yet
+    /// @throws IllegalStateException if every slot is taken by other names
+    public LongHitCounter counter(final String name) {
+        final byte[] encodedName = encode(name);
+        // String.hashCode() is specified, so every JVM starts probing at the same slot
+        final int start = Math.floorMod(name.hashCode(), capacity);
+        for (int probe = 0; probe < capacity; probe++) {
+            final long slot = HEADER_SIZE + (long) ((start + probe) % capacity) * SLOT_SIZE;
+            if (claimOrMatch(slot, encodedName)) {
+                return new SharedMemoryHitCounter(region, slot + HITS_OFFSET);
+            }
+        }
+        throw new IllegalStateException("No free slot for counter '" + name + "' (capacity " + capacity + ")");
+    }
+
+    /// @return the current value of every named counter in the region
+    public Map<String, Long> snapshot() {
+        final Map<String, Long> values = new HashMap<>();
+        for (int index = 0; index < capacity; index++) {
+            final long slot = HEADER_SIZE + (long) index * SLOT_SIZE;
+            final long state = (long) LONG.getAcquire(region, slot + STATE_OFFSET);
+            if (state > 0) {
+                values.put(readName(slot, state), (long) LONG.getVolatile(region, slot + HITS_OFFSET));
+            }
+        }
+        return Map.copyOf(values);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /// Frees every slot left half-claimed by a process that died while claiming it.
+    ///
+    /// Only call this while no process is resolving new names, e.g. from an operator tool or at a
+    /// startup that holds an external lock: a live claim in progress would be freed as well.
+    ///
+    /// @return the number of slots freed
+    public int releaseAbandonedClaims() {
+        int released = 0;
+        for (int index = 0; index < capacity; index++) {
+            final long stateOffset = HEADER_SIZE + (long) index * SLOT_SIZE + STATE_OFFSET;
+            if (LONG.compareAndSet(region, stateOffset, CLAIMING, EMPTY)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    /// Unmaps the region; counters obtained from it must not be used afterwards.
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private boolean claimOrMatch(final long slot, final byte[] encodedName) {
+        final long stateOffset = slot + STATE_OFFSET;
+        long state = (long) LONG.compareAndExchange(region, stateOffset, EMPTY, CLAIMING);
+        if (state == EMPTY) {
+            MemorySegment.copy(MemorySegment.ofArray(encodedName), 0, region, slot + NAME_OFFSET, encodedName.length);
+            LONG.setRelease(region, stateOffset, (long) encodedName.length);
+            return true;
+        }
+        final long deadline = System.nanoTime() + CLAIM_TIMEOUT.toNanos();
+        while (state == CLAIMING) { // another thread or process is writing this slot's name
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Slot at offset " + slot + " is still being claimed after " + CLAIM_TIMEOUT
+                        + "; if its process died, call releaseAbandonedClaims()");
+            }
+            Thread.onSpinWait();
+            state = (long) LONG.getAcquire(region, stateOffset);
+        }
+        return state == encodedName.length
+                && MemorySegment.mismatch(region, slot + NAME_OFFSET, slot + NAME_OFFSET + state,
+                MemorySegment.ofArray(encodedName), 0, encodedName.length) == -1;
+    }
+
+    private String readName(final long slot, final long length) {
+        final byte[] name = region.asSlice(slot + NAME_OFFSET, length).toArray(ValueLayout.JAVA_BYTE);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(final String name) {
+        Objects.requireNonNull(name, "name must not be null!");
+        final byte[] encodedName = name.getBytes(StandardCharsets.UTF_8);
+        if (encodedName.length == 0 || encodedName.length > MAXIMUM_NAME_LENGTH) {
+            throw new IllegalArgumentException("name must be between 1 and " + MAXIMUM_NAME_LENGTH + " bytes of UTF-8.");
+        }
+        return encodedName;
+    }
+
+    /// One named counter of a `SharedMemoryHitCounters` region.
+    @ThreadSafe
+    private record SharedMemoryHitCounter(MemorySegment region, long offset) implements LongHitCounter {
+        @Override
+        public long getLongHits() {
+            return (long) LONG.getVolatile(region, offset);
+        }
+
+        @Override
+        public long incrementLongHits() {
+            return (long) LONG.getAndAdd(region, offset, 1L) + 1;
+        }
+
+        @Override
+        public long addLongHits(final long delta) {
+            HitCounter.requireNonNegativeDelta(delta);
+            return (long) LONG.getAndAdd(region, offset, delta) + delta;
+        }
+
+        @Override
+        public long resetLongHits() {
+            return (long) LONG.getAndSet(region, offset, 0L);
+        }
+    }
+}
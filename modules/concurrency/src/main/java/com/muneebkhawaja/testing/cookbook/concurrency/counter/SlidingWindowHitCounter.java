@@ -0,0 +1,119 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+///
+/// Counts hits over a sliding time window, e.g. "hits in the last 60 seconds", without an external
+/// scheduler resetting a `HitCounter` underneath concurrent increments.
+///
+/// The window is a ring of `buckets` time slices, each backed by its own `HitCounter` from the
+/// supplied strategy. A slice that has fallen out of the window is not reset in place: the first
+/// hit that needs it swaps in a fresh counter with a single CAS, so the increment path never
+/// takes a lock (beyond whatever the chosen strategy does) and never races with a reset.
+///
+/// Reads sum the slices still inside the window, so the window slides in steps of one slice:
+/// `window / buckets`, so `window` must split into whole milliseconds per slice. Time comes from the
+/// injected `Clock`.
+///
+/// ## Example
+/// ```java
+/// // last minute, in 100 ms slices
+/// final SlidingWindowHitCounter lastMinute = new SlidingWindowHitCounter(
+///         StripedHitCounter::new, Duration.ofMinutes(1), 600, Clock.systemUTC());
+/// lastMinute.incrementHits();
+/// final double rate = lastMinute.getHitsPerSecond();
+/// ```
+///
+@ThreadSafe
+public class SlidingWindowHitCounter {
+    private final Supplier<? extends HitCounter> counterFactory;
+    private final Duration window;
+    private final long bucketMillis;
+    private final Clock clock;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    public SlidingWindowHitCounter(
+            final Supplier<? extends HitCounter> counterFactory,
+            final Duration window,
+            final int buckets,
+            final Clock clock
+    ) {
+        this.counterFactory = Objects.requireNonNull(counterFactory, "counterFactory must not be null!");
+        this.window = Objects.requireNonNull(window, "window must not be null!");
+        this.clock = Objects.requireNonNull(clock, "clock must not be null!");
+        if (buckets < 1) {
+            throw new IllegalArgumentException("buckets must be at least 1.");
+        }
+        if (window.toMillis() < buckets) {
+            throw new IllegalArgumentException("Each bucket must span at least one millisecond.");
+        }
+        if (window.toMillis() % buckets != 0 || window.toNanosPart() % 1_000_000 != 0) {
+            throw new IllegalArgumentException("window must be a whole number of milliseconds divisible by buckets.");
+        }
+        this.bucketMillis = window.toMillis() / buckets;
+        this.buckets = new AtomicReferenceArray<>(buckets);
+    }
+
+    /// Records one hit in the current time slice.
+    public void incrementHits() {
+        currentBucket().counter().incrementHits();
+    }
+
+    /// Records `delta` hits in the current time slice.
+    public void addHits(final int delta) {
+        currentBucket().counter().addHits(delta);
+    }
+
+    /// @return the number of hits recorded within the window ending now
+    public long getHits() {
+        final long currentSlice = currentSlice();
+        long hits = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            final Bucket bucket = buckets.get(i);
+            if (bucket != null && currentSlice - bucket.slice() < buckets.length()) {
+                hits += bucket.counter().getLongHits();
+            }
+        }
+        return hits;
+    }
+
+    /// @return the average number of hits per second within the window ending now
+    public double getHitsPerSecond() {
+        return getHits() * 1000.0 / (bucketMillis * buckets.length());
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    private Bucket currentBucket() {
+        final long currentSlice = currentSlice();
+        final int index = (int) Math.floorMod(currentSlice, buckets.length());
+        while (true) {
+            final Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.slice() == currentSlice) {
+                return bucket;
+            }
+            if (bucket != null && bucket.slice() > currentSlice) {
+                return bucket; // the clock stepped back; count into the newer slice
+            }
+            final Bucket fresh = new Bucket(currentSlice, counterFactory.get());
+            if (buckets.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private long currentSlice() {
+        return Math.floorDiv(clock.millis(), bucketMillis);
+    }
+
+    private record Bucket(long slice, HitCounter counter) {
+    }
+}
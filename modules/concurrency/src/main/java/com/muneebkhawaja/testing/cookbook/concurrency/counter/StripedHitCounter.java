@@ -0,0 +1,55 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+///
+/// Striped counter for write-heavy hot paths.
+///
+/// Increments land on a `LongAdder`, which starts with a single base value and, once threads
+/// contend on it, spreads them across a table of cells (up to one per CPU). Each cell is padded
+/// (`@Contended`) so that neighbouring cells never share a cache line.
+///
+/// ## Trade-offs
+/// - `incrementLongHits()` returns the sum observed right after the increment. It always includes
+///   the caller's own hit, but concurrent callers may observe the same value.
+/// - `getLongHits()` walks every cell, so reads are more expensive than with a single atomic.
+/// - `resetLongHits()` swaps every cell to zero one at a time. It is not a point-in-time snapshot,
+///   but every hit is counted exactly once: either in the returned value or in the new total.
+///
+@Component
+@Scope("prototype")
+@ThreadSafe
+public class StripedHitCounter implements LongHitCounter {
+    private final LongAdder hits;
+
+    public StripedHitCounter() {
+        this.hits = new LongAdder();
+    }
+
+    @Override
+    public long getLongHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long incrementLongHits() {
+        hits.increment();
+        return hits.sum();
+    }
+
+    @Override
+    public long addLongHits(final long delta) {
+        HitCounter.requireNonNegativeDelta(delta);
+        hits.add(delta);
+        return hits.sum();
+    }
+
+    @Override
+    public long resetLongHits() {
+        return hits.sumThenReset();
+    }
+}
@@ -0,0 +1,154 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.eviction;
+
+import net.jcip.annotations.ThreadSafe;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+///
+/// A concurrent map bounded to `maximumKeys` keys by a CLOCK (second chance) sweep, shared by
+/// `HitCounterRegistry` and `CachingFunction`.
+///
+/// Every lookup of an existing key marks it as referenced. Before a new key would take the map past
+/// `maximumKeys` keys, the sweep clears that mark or evicts keys that were not looked up since they
+/// were added or last swept, so keys used only once are the first to go. Only one thread sweeps at
+/// a time; a thread that finds another one already sweeping adds its key without waiting, so
+/// `maximumKeys` is a soft bound and a burst of new keys may briefly exceed it.
+///
+/// Lookups of existing keys take no lock and allocate nothing. Only the first lookup of a key goes
+/// through `ConcurrentHashMap.computeIfAbsent`, using a single mapping function built once per map.
+///
+@ThreadSafe
+public final class ClockEvictingMap<K, V> {
+    private final ConcurrentMap<K, Slot<V>> slots;
+    private final Function<K, Slot<V>> slotFactory;
+    private final int maximumKeys;
+    private final Predicate<? super V> pinned;
+    private final BiConsumer<? super K, ? super V> evicted;
+    private final ReentrantLock evictionLock;
+
+    /// @param factory creates the value of a key on its first lookup; it runs inside
+    ///                `ConcurrentHashMap.computeIfAbsent`, so it must be cheap and must not touch this map
+    /// @param pinned  values the sweep must skip for now, e.g. a value that is still loading
+    /// @param evicted called with every evicted mapping, after it was removed
+    public ClockEvictingMap(
+            final int maximumKeys,
+            final Function<? super K, ? extends V> factory,
+            final Predicate<? super V> pinned,
+            final BiConsumer<? super K, ? super V> evicted
+    ) {
+        if (maximumKeys < 1) {
+            throw new IllegalArgumentException("maximumKeys must be at least 1.");
+        }
+        Objects.requireNonNull(factory, "factory must not be null!");
+        this.slots = new ConcurrentHashMap<>();
+        this.slotFactory = key -> new Slot<>(Objects.requireNonNull(factory.apply(key), "factory returned null"));
+        this.maximumKeys = maximumKeys;
+        this.pinned = Objects.requireNonNull(pinned, "pinned must not be null!");
+        this.evicted = Objects.requireNonNull(evicted, "evicted must not be null!");
+        this.evictionLock = new ReentrantLock();
+    }
+
+    /// @return the value for `key`, marking it as referenced, or `null` if the key is absent
+    public @Nullable V get(final K key) {
+        final Slot<V> existing = slots.get(Objects.requireNonNull(key, "key must not be null!"));
+        if (existing == null) {
+            return null;
+        }
+        existing.touch();
+        return existing.value();
+    }
+
+    /// @return the value for `key` without marking it as referenced, or `null` if the key is absent
+    public @Nullable V peek(final K key) {
+        final Slot<V> existing = slots.get(Objects.requireNonNull(key, "key must not be null!"));
+        return existing == null ? null : existing.value();
+    }
+
+    /// Returns the value for `key`, marking it as referenced, or evicts cold keys and adds the value
+    /// created by the factory if the key is absent.
+    ///
+    /// @return the value for `key`
+    public V getOrCreate(final K key) {
+        final V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (slots.size() >= maximumKeys) {
+            evictColdKeys(); // make room first, so a new key is never evicted by its own sweep
+        }
+        return slots.computeIfAbsent(key, slotFactory).value();
+    }
+
+    /// @return the number of keys currently held
+    public int size() {
+        return slots.size();
+    }
+
+    /// Passes every mapping to `action`, without marking any key as referenced.
+    public void forEach(final BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action, "action must not be null!");
+        slots.forEach((key, slot) -> action.accept(key, slot.value()));
+    }
+
+    private void evictColdKeys() {
+        if (!evictionLock.tryLock()) {
+            return; // another thread is already sweeping
+        }
+        try {
+            // Two passes at most: the first may only clear reference marks.
+            for (int pass = 0; pass < 2 && slots.size() >= maximumKeys; pass++) {
+                final Iterator<Map.Entry<K, Slot<V>>> iterator = slots.entrySet().iterator();
+                while (iterator.hasNext() && slots.size() >= maximumKeys) {
+                    final Map.Entry<K, Slot<V>> candidate = iterator.next();
+                    final Slot<V> slot = candidate.getValue();
+                    if (pinned.test(slot.value()) || slot.clearReference()) {
+                        continue;
+                    }
+                    if (slots.remove(candidate.getKey(), slot)) {
+                        evicted.accept(candidate.getKey(), slot.value());
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Slot<V> {
+        private final V value;
+        private volatile boolean referenced;
+
+        private Slot(final V value) {
+            this.value = value;
+            this.referenced = false;
+        }
+
+        private V value() {
+            return value;
+        }
+
+        private void touch() {
+            if (!referenced) { // avoid dirtying the cache line of hot keys
+                referenced = true;
+            }
+        }
+
+        /// @return whether the key was looked up since it was added or last swept
+        private boolean clearReference() {
+            if (referenced) {
+                referenced = false;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import net.jcip.annotations.ThreadSafe;
+import org.jspecify.annotations.NonNull;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+///
+/// Non-blocking counterpart of `CachingSupplier`: `get()` never waits for the delegate, it returns
+/// a `CompletableFuture` of the value, so callers on event-loop or virtual threads compose on the
+/// value instead of blocking while a slow delegate runs.
+///
+/// Every caller gets its own copy of one private future, so completing, cancelling or
+/// `obtrude`-ing the returned future only affects that caller.
+///
+/// The delegate runs once, on the executor (a virtual thread by default), started by the first
+/// call to `get()` or at construction with `eager(...)`. Concurrent first calls race on a CAS and
+/// only the winner starts the load.
+///
+/// ## Failures
+/// A load that fails is not cached forever: callers already holding a future of it see the
+/// failure, and the next `get()` starts a new load.
+///
+/// ## Example
+/// ```java
+/// final AsyncCachingSupplier<Catalog> catalog = AsyncCachingSupplier.eager(catalogClient::fetch);
+/// catalog.get().thenAccept(this::render);
+/// ```
+///
+@ThreadSafe // And lock free!
+public class AsyncCachingSupplier<T> implements Supplier<CompletableFuture<T>> {
+    private static final Executor VIRTUAL_THREAD_PER_LOAD = task -> Thread.ofVirtual()
+            .name("async-caching-supplier")
+            .start(task);
+
+    private final Supplier<T> delegate;
+    private final Executor executor;
+    private final AtomicReference<CompletableFuture<T>> future;
+
+    public AsyncCachingSupplier(final Supplier<T> delegate) {
+        this(delegate, VIRTUAL_THREAD_PER_LOAD);
+    }
+
+    public AsyncCachingSupplier(final Supplier<T> delegate, final Executor executor) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null!");
+        this.executor = Objects.requireNonNull(executor, "executor must not be null!");
+        this.future = new AtomicReference<>();
+    }
+
+    /// @return a supplier that has already started loading on a virtual thread
+    public static <T> AsyncCachingSupplier<T> eager(final Supplier<T> delegate) {
+        return eager(delegate, VIRTUAL_THREAD_PER_LOAD);
+    }
+
+    /// @return a supplier that has already started loading on `executor`
+    public static <T> AsyncCachingSupplier<T> eager(final Supplier<T> delegate, final Executor executor) {
+        final AsyncCachingSupplier<T> supplier = new AsyncCachingSupplier<>(delegate, executor);
+        supplier.get();
+        return supplier;
+    }
+
+    /// @return a new future of the value, starting a load if there is none or the last one failed
+    @Override
+    public @NonNull CompletableFuture<T> get() {
+        while (true) {
+            final CompletableFuture<T> current = future.get();
+            if (current != null && !current.isCompletedExceptionally()) {
+                return current.copy();
+            }
+            final CompletableFuture<T> fresh = new CompletableFuture<>();
+            if (future.compareAndSet(current, fresh)) {
+                load(fresh);
+                return fresh.copy();
+            }
+        }
+    }
+
+    private void load(final CompletableFuture<T> target) {
+        try {
+            executor.execute(() -> {
+                try {
+                    target.complete(Objects.requireNonNull(delegate.get(), "Delegate returned null"));
+                } catch (final Throwable throwable) {
+                    target.completeExceptionally(throwable);
+                }
+            });
+        } catch (final RuntimeException rejected) {
+            target.completeExceptionally(rejected);
+        }
+    }
+}
@@ -6,18 +6,25 @@ import org.apache.commons.lang3.concurrent.ConcurrentException;
 import org.jspecify.annotations.NonNull;
 
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 @ThreadSafe // And lock free!
-public class AtomicSafeInitializerCachingSupplier<T> implements CachingSupplier<T> {
+public class AtomicSafeInitializerCachingSupplier<T> implements CachingSupplier<T>, AutoCloseable {
     private final AtomicSafeInitializer<T> atomicSafeInitializer;
 
     public AtomicSafeInitializerCachingSupplier(final Supplier<T> delegate) {
+        this(delegate, _ -> {
+        });
+    }
+
+    /// @param closer releases the instance on `close()`; not called if it was never initialized
+    public AtomicSafeInitializerCachingSupplier(final Supplier<T> delegate, final Consumer<? super T> closer) {
         Objects.requireNonNull(delegate, "delegate must not be null!");
+        Objects.requireNonNull(closer, "closer must not be null!");
         this.atomicSafeInitializer = AtomicSafeInitializer.<T>builder()
                 .setInitializer(() -> Objects.requireNonNull(delegate.get(), "Delegate returned null"))
-                .setCloser(_ -> {
-                })
+                .setCloser(closer::accept)
                 .get();
     }
 
@@ -29,4 +36,15 @@ public class AtomicSafeInitializerCachingSupplier<T> implements CachingSupplier<
             throw new RuntimeException(e);
         }
     }
+
+    /// Closes the instance if it was initialized. Unlike `ResettableCachingSupplier`, this supplier
+    /// is not re-initialized afterwards: `get()` keeps returning the closed instance.
+    @Override
+    public void close() {
+        try {
+            atomicSafeInitializer.close();
+        } catch (ConcurrentException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -0,0 +1,104 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.eviction.ClockEvictingMap;
+import net.jcip.annotations.ThreadSafe;
+import org.jspecify.annotations.NonNull;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+///
+/// The keyed counterpart of `CachingSupplier`: computes each key's value once, lazily, and returns
+/// the same instance for that key afterwards (e.g. one client per tenant).
+///
+/// ## Per-key single flight
+/// Each key maps to its own `CachingSupplier`, built by the chosen strategy (double-checked
+/// locking by default). `computeIfAbsent` only creates that supplier, which is cheap; the
+/// delegate runs afterwards, outside the map, under the lock of that key's supplier. Concurrent
+/// calls for one key therefore share a single load, while loads for other keys proceed in
+/// parallel and no map-wide lock is ever held while the delegate runs. A load that throws caches
+/// nothing, so the next call for that key tries again.
+///
+/// ## Eviction
+/// Before a new key would take the function past `maximumKeys` keys, cold keys are evicted by the
+/// CLOCK (second chance) sweep of `ClockEvictingMap`: keys not requested since they were added or
+/// last swept go first. A key is never evicted before its first load has finished, so the sweep
+/// cannot break single flight; if every key is still loading, the function briefly holds more than
+/// `maximumKeys` keys. A caller that already resolved an evicted key's supplier still gets its
+/// value; the next call for that key computes a new one.
+///
+/// ## Example
+/// ```java
+/// final CachingFunction<String, TenantClient> clients = new CachingFunction<>(TenantClient::connect, 1_000);
+/// clients.apply("acme").send(request);
+/// ```
+///
+@ThreadSafe
+public class CachingFunction<K, V> implements Function<K, V> {
+    private final ClockEvictingMap<K, Entry<V>> values;
+
+    public CachingFunction(final Function<? super K, ? extends V> delegate, final int maximumKeys) {
+        this(delegate, maximumKeys, DoubleCheckedLockingCachingSupplier::new);
+    }
+
+    /// @param strategy creates the `CachingSupplier` that loads a single key, e.g.
+    ///                 `AtomicSafeInitializerCachingSupplier::new`
+    public CachingFunction(
+            final Function<? super K, ? extends V> delegate,
+            final int maximumKeys,
+            final Function<Supplier<V>, CachingSupplier<V>> strategy
+    ) {
+        Objects.requireNonNull(delegate, "delegate must not be null!");
+        Objects.requireNonNull(strategy, "strategy must not be null!");
+        if (maximumKeys < 1) {
+            throw new IllegalArgumentException("maximumKeys must be at least 1.");
+        }
+        this.values = new ClockEvictingMap<>(maximumKeys, key -> new Entry<>(Objects.requireNonNull(
+                strategy.apply(() -> delegate.apply(key)), "strategy returned null")), Entry::isLoading, (_, _) -> {
+        });
+    }
+
+    /// @return the value for `key`, computing it on first use
+    @Override
+    public @NonNull V apply(final K key) {
+        final Entry<V> entry = values.getOrCreate(key);
+        try {
+            return entry.supplier().get();
+        } finally {
+            entry.settle();
+        }
+    }
+
+    /// @return the number of keys currently cached, including keys whose value is still loading
+    public int size() {
+        return values.size();
+    }
+
+    private static final class Entry<V> {
+        private final CachingSupplier<V> supplier;
+        private volatile boolean settled;
+
+        private Entry(final CachingSupplier<V> supplier) {
+            this.supplier = supplier;
+            this.settled = false;
+        }
+
+        private CachingSupplier<V> supplier() {
+            return supplier;
+        }
+
+        /// Marks that a load of this key has returned or thrown.
+        private void settle() {
+            if (!settled) { // avoid dirtying the cache line of hot keys
+                settled = true;
+            }
+        }
+
+        /// @return whether no load of this key has finished yet, so evicting it now would let
+        ///         the next caller start a second load alongside the first
+        private boolean isLoading() {
+            return !settled;
+        }
+    }
+}
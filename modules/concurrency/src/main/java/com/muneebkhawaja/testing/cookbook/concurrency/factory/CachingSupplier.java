@@ -2,17 +2,24 @@ package com.muneebkhawaja.testing.cookbook.concurrency.factory;
 
 import org.jspecify.annotations.NonNull;
 
+import java.util.Objects;
 import java.util.function.Supplier;
 
 ///
 /// Implementations must return the same instance for later calls after initialization
 /// Implementations must also guarantee that initialization only hapens once.
+/// Values that expire are served by a `RefreshingSupplier` instead.
 ///
 public interface CachingSupplier<T> extends Supplier<T> {
     @Override
     @NonNull T get();
 
+    /// @return a supplier built with `CachingSupplierStrategy.defaultStrategy()`
     static <T> CachingSupplier<T> of(final Supplier<T> delegate) {
-        return new DoubleCheckedLockingCachingSupplier<>(delegate);
+        return of(delegate, CachingSupplierStrategy.defaultStrategy());
+    }
+
+    static <T> CachingSupplier<T> of(final Supplier<T> delegate, final CachingSupplierStrategy strategy) {
+        return Objects.requireNonNull(strategy, "strategy must not be null!").create(delegate);
     }
 }
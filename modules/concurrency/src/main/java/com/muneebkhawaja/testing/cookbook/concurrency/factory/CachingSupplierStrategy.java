@@ -0,0 +1,55 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+///
+/// The `CachingSupplier` implementations `CachingSupplier.of(...)` can build.
+///
+/// The default is `DOUBLE_CHECKED_LOCKING`; set the system property
+/// `concurrency.caching-supplier.strategy` (e.g. `-Dconcurrency.caching-supplier.strategy=REENTRANT_LOCK`)
+/// to change it for the whole JVM, e.g. on JDKs where `synchronized` pins virtual threads. The
+/// property is read by every call to `defaultStrategy()`, so an invalid value fails that call with
+/// an `IllegalArgumentException` instead of breaking the initialization of this class.
+///
+public enum CachingSupplierStrategy {
+    ATOMIC_SAFE_INITIALIZER,
+    DOUBLE_CHECKED_LOCKING,
+    MONITOR_LOCK,
+    PRIVATE_MONITOR_LOCK,
+    REENTRANT_LOCK,
+    RW_LOCK;
+
+    public static final String PROPERTY = "concurrency.caching-supplier.strategy";
+
+    /// @return the strategy `CachingSupplier.of(...)` uses
+    /// @throws IllegalArgumentException if the system property names no strategy
+    public static CachingSupplierStrategy defaultStrategy() {
+        return fromProperty(System.getProperty(PROPERTY));
+    }
+
+    public <T> CachingSupplier<T> create(final Supplier<T> delegate) {
+        return switch (this) {
+            case ATOMIC_SAFE_INITIALIZER -> new AtomicSafeInitializerCachingSupplier<>(delegate);
+            case DOUBLE_CHECKED_LOCKING -> new DoubleCheckedLockingCachingSupplier<>(delegate);
+            case MONITOR_LOCK -> new MonitorLockCachingSupplier<>(delegate);
+            case PRIVATE_MONITOR_LOCK -> new PrivateMonitorLockCachingSupplier<>(delegate);
+            case REENTRANT_LOCK -> new ReentrantLockCachingSupplier<>(delegate);
+            case RW_LOCK -> new RWLockCachingSupplier<>(delegate);
+        };
+    }
+
+    static CachingSupplierStrategy fromProperty(final String value) {
+        if (value == null || value.isBlank()) {
+            return DOUBLE_CHECKED_LOCKING;
+        }
+        final String name = value.strip().toUpperCase(Locale.ROOT).replace('-', '_');
+        return Arrays.stream(values())
+                .filter(strategy -> strategy.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "System property " + PROPERTY + " must be one of " + Arrays.toString(values())
+                                + " but was '" + value + "'."));
+    }
+}
@@ -0,0 +1,162 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import net.jcip.annotations.ThreadSafe;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+///
+/// Initializes every singleton `CachingSupplier` bean in parallel once all singletons exist, before
+/// the application takes traffic, so the first requests after a deploy do not pay for every lazy
+/// component one after the other.
+///
+/// ## Parallelism and dependencies
+/// Every supplier gets its own virtual thread, and a semaphore lets at most
+/// `concurrency.caching-supplier.warm-up.parallelism` (default 4) of them initialize at once. A
+/// supplier whose delegate needs another supplier simply calls its `get()`: every `CachingSupplier`
+/// initializes once, so the dependency is either already there, initialized inline, or awaited
+/// while another thread initializes it. Cyclic dependencies are not supported, with or without
+/// warm-up.
+///
+/// ## Reporting
+/// The time each supplier took is logged and kept in `getResults()`, slowest first. A supplier that
+/// fails is logged and reported but does not fail startup; it is initialized again on first use.
+///
+/// ## Deadline
+/// Startup waits at most `concurrency.caching-supplier.warm-up.timeout-millis` (default 30
+/// seconds) for the whole warm-up. Suppliers still initializing or waiting for a permit by then are
+/// reported as failed, caused by a `TimeoutException`. The ones already initializing finish in the
+/// background, and callers that need them wait as they would without warm-up; the ones still
+/// waiting are left to initialize on first use.
+///
+@Component
+@ThreadSafe
+public class CachingSupplierWarmUp implements SmartInitializingSingleton {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingSupplierWarmUp.class);
+
+    private final ListableBeanFactory beanFactory;
+    private final int parallelism;
+    private final Duration timeout;
+    private volatile List<Result> results;
+
+    public CachingSupplierWarmUp(
+            final ListableBeanFactory beanFactory,
+            @Value("${concurrency.caching-supplier.warm-up.parallelism:4}") final int parallelism,
+            @Value("${concurrency.caching-supplier.warm-up.timeout-millis:30000}") final long timeoutMillis
+    ) {
+        this.beanFactory = Objects.requireNonNull(beanFactory, "beanFactory must not be null!");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1.");
+        }
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("timeoutMillis must be at least 1.");
+        }
+        this.parallelism = parallelism;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.results = List.of();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // singletons only: warming up a prototype would initialize an instance nobody uses
+        final Map<String, Supplier<?>> suppliers = new LinkedHashMap<>();
+        beanFactory.getBeansOfType(CachingSupplier.class, false, false).forEach(suppliers::put);
+        results = warmUp(suppliers);
+    }
+
+    /// Initializes `suppliers` in parallel and waits for all of them, or until the timeout.
+    ///
+    /// @return the outcome for each supplier, slowest first
+    public List<Result> warmUp(final Map<String, ? extends Supplier<?>> suppliers) {
+        Objects.requireNonNull(suppliers, "suppliers must not be null!");
+        if (suppliers.isEmpty()) {
+            return List.of();
+        }
+        final long start = System.nanoTime();
+        final long deadline = start + timeout.toNanos();
+        final Semaphore permits = new Semaphore(parallelism);
+        final Map<String, Future<Result>> pending = new LinkedHashMap<>();
+        final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("caching-supplier-warm-up-", 0).factory());
+        try {
+            suppliers.forEach((name, supplier) -> pending.put(name, executor.submit(() -> warmUp(name, supplier, permits, deadline))));
+        } finally {
+            executor.shutdown(); // not close(): that would wait past the deadline
+        }
+        final List<Result> outcomes = new ArrayList<>(pending.size());
+        pending.forEach((name, result) -> outcomes.add(resultOf(name, result, start, deadline)));
+        outcomes.sort((left, right) -> right.duration().compareTo(left.duration()));
+        LOGGER.info("Warmed up {} CachingSupplier(s) in {} ms.", outcomes.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return List.copyOf(outcomes);
+    }
+
+    /// @return the outcome of the warm-up at startup, slowest first
+    public List<Result> getResults() {
+        return results;
+    }
+
+    private Result warmUp(final String name, final Supplier<?> supplier, final Semaphore permits, final long deadline)
+            throws InterruptedException {
+        final long queuedAt = System.nanoTime();
+        if (!permits.tryAcquire(deadline - queuedAt, TimeUnit.NANOSECONDS)) {
+            return timedOut(name, queuedAt); // left for first use
+        }
+        final long start = System.nanoTime();
+        try {
+            supplier.get();
+            final Result result = new Result(name, Duration.ofNanos(System.nanoTime() - start), null);
+            LOGGER.debug("Warmed up '{}' in {} ms.", name, result.duration().toMillis());
+            return result;
+        } catch (final RuntimeException exception) {
+            LOGGER.warn("Warming up '{}' failed; it will be initialized on first use.", name, exception);
+            return new Result(name, Duration.ofNanos(System.nanoTime() - start), exception);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Result resultOf(final String name, final Future<Result> result, final long start, final long deadline) {
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException timeoutException) {
+            LOGGER.warn("Warming up '{}' did not finish within {}; it keeps initializing in the background.", name, timeout);
+            return timedOut(name, start);
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while warming up.", interruptedException);
+        } catch (final ExecutionException executionException) {
+            throw new IllegalStateException("Warm-up task failed.", executionException.getCause());
+        }
+    }
+
+    private Result timedOut(final String name, final long start) {
+        return new Result(name, Duration.ofNanos(System.nanoTime() - start),
+                new IllegalStateException("Warm-up did not finish within " + timeout + ".", new TimeoutException()));
+    }
+
+    /// How long initializing the supplier called `name` took, and the failure if it failed.
+    public record Result(String name, Duration duration, @Nullable RuntimeException failure) {
+        public boolean succeeded() {
+            return failure == null;
+        }
+    }
+}
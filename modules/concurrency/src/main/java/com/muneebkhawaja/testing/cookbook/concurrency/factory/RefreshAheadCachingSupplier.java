@@ -0,0 +1,162 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+///
+/// Caches the delegate's value for a time-to-live, for values that rotate (config blobs,
+/// credentials) and therefore cannot be memoized forever.
+///
+/// ## Refresh-ahead
+/// Once a value is older than `timeToLive - refreshAhead`, the first caller to notice hands a
+/// reload to the refresh executor (a virtual thread per reload by default) and every caller keeps
+/// getting the current value until the reload replaces it. Callers only wait for the delegate when
+/// there is no value yet or the value has fully expired, e.g. after a long idle period or a failed
+/// refresh.
+///
+/// ## Single flight
+/// Every load, in the background or not, runs under one lock, so at most one thread invokes the
+/// delegate at a time; callers that find an expired value wait for that load instead of starting
+/// their own. A lock rather than `synchronized` is used so waiting virtual threads do not pin
+/// their carrier.
+///
+/// A failed background refresh is logged and the current value is kept until it expires. The next
+/// refresh is postponed by half the time the value has left, so a failing delegate is retried a
+/// few times before expiry rather than on every call. A failed load on the caller's thread is
+/// thrown to that caller, and the next call tries again.
+///
+/// ## Example
+/// ```java
+/// final RefreshingSupplier<Credentials> credentials = new RefreshAheadCachingSupplier<>(
+///         vault::fetchCredentials, Duration.ofMinutes(15), Duration.ofMinutes(1));
+/// ```
+///
+@ThreadSafe
+public class RefreshAheadCachingSupplier<T> implements RefreshingSupplier<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RefreshAheadCachingSupplier.class);
+    private static final Executor VIRTUAL_THREAD_PER_REFRESH = task -> Thread.ofVirtual()
+            .name("caching-supplier-refresh")
+            .start(task);
+
+    private final Supplier<T> delegate;
+    private final long timeToLiveMillis;
+    private final long refreshAfterMillis;
+    private final Clock clock;
+    private final Executor refreshExecutor;
+    private final ReentrantLock loadLock;
+    private final AtomicBoolean refreshing;
+    @GuardedBy("loadLock") // written under the lock, read without it
+    private volatile Entry<T> entry;
+
+    public RefreshAheadCachingSupplier(final Supplier<T> delegate, final Duration timeToLive, final Duration refreshAhead) {
+        this(delegate, timeToLive, refreshAhead, Clock.systemUTC(), VIRTUAL_THREAD_PER_REFRESH);
+    }
+
+    public RefreshAheadCachingSupplier(
+            final Supplier<T> delegate,
+            final Duration timeToLive,
+            final Duration refreshAhead,
+            final Clock clock,
+            final Executor refreshExecutor
+    ) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null!");
+        Objects.requireNonNull(timeToLive, "timeToLive must not be null!");
+        Objects.requireNonNull(refreshAhead, "refreshAhead must not be null!");
+        this.clock = Objects.requireNonNull(clock, "clock must not be null!");
+        this.refreshExecutor = Objects.requireNonNull(refreshExecutor, "refreshExecutor must not be null!");
+        if (timeToLive.toMillis() < 1) {
+            throw new IllegalArgumentException("timeToLive must be at least one millisecond.");
+        }
+        if (refreshAhead.isNegative() || refreshAhead.compareTo(timeToLive) >= 0) {
+            throw new IllegalArgumentException("refreshAhead must not be negative and must be shorter than timeToLive.");
+        }
+        this.timeToLiveMillis = timeToLive.toMillis();
+        this.refreshAfterMillis = timeToLive.minus(refreshAhead).toMillis();
+        this.loadLock = new ReentrantLock();
+        this.refreshing = new AtomicBoolean(false);
+        this.entry = null;
+    }
+
+    @Override
+    public @NonNull T get() {
+        final Entry<T> current = entry;
+        final long now = clock.millis();
+        if (current == null || now >= current.expiresAt()) {
+            return loadIfExpired();
+        }
+        if (now >= current.refreshAt() && refreshing.compareAndSet(false, true)) {
+            scheduleRefresh(current);
+        }
+        return current.value();
+    }
+
+    private T loadIfExpired() {
+        loadLock.lock();
+        try {
+            final Entry<T> current = entry;
+            if (current != null && clock.millis() < current.expiresAt()) {
+                return current.value(); // loaded by whoever held the lock before us
+            }
+            return load().value();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void scheduleRefresh(final Entry<T> stale) {
+        try {
+            refreshExecutor.execute(() -> refresh(stale));
+        } catch (final RuntimeException exception) { // rejected, or a custom executor failed
+            LOGGER.warn("Refresh-ahead could not be scheduled; the next caller will try again.", exception);
+            refreshing.set(false);
+        }
+    }
+
+    private void refresh(final Entry<T> stale) {
+        loadLock.lock();
+        try {
+            if (entry == stale) { // a caller may have reloaded an expired value in the meantime
+                load();
+            }
+        } catch (final RuntimeException exception) {
+            LOGGER.warn("Refresh-ahead failed; serving the current value until it expires.", exception);
+            postponeRefresh(stale);
+        } finally {
+            refreshing.set(false);
+            loadLock.unlock();
+        }
+    }
+
+    @GuardedBy("loadLock")
+    private void postponeRefresh(final Entry<T> stale) {
+        if (entry != stale) {
+            return;
+        }
+        final long now = clock.millis();
+        final long retryAt = now + Math.max(1, (stale.expiresAt() - now) / 2);
+        entry = new Entry<>(stale.value(), Math.min(retryAt, stale.expiresAt()), stale.expiresAt());
+    }
+
+    @GuardedBy("loadLock")
+    private Entry<T> load() {
+        final T value = Objects.requireNonNull(delegate.get(), "Delegate returned null");
+        final long loadedAt = clock.millis();
+        final Entry<T> loaded = new Entry<>(value, loadedAt + refreshAfterMillis, loadedAt + timeToLiveMillis);
+        entry = loaded;
+        return loaded;
+    }
+
+    private record Entry<T>(T value, long refreshAt, long expiresAt) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import org.jspecify.annotations.NonNull;
+
+import java.util.function.Supplier;
+
+///
+/// A caching supplier whose value expires, for values that rotate (config blobs, credentials) and
+/// therefore cannot be memoized forever the way a `CachingSupplier` does.
+///
+/// Implementations must return the same instance for later calls until it expires, and must
+/// guarantee that at most one thread loads a value at a time. A later call may return a new instance
+/// once the previous one expired.
+///
+public interface RefreshingSupplier<T> extends Supplier<T> {
+    @Override
+    @NonNull T get();
+}
@@ -0,0 +1,187 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+///
+/// Caches an instance that holds resources (connection pools, native parsers) and can be
+/// invalidated: the instance is closed with the supplied closer and the next access initializes a
+/// new one.
+///
+/// ## Safe handover
+/// Readers that must not see their instance closed underneath them use `acquire()` in a
+/// try-with-resources block. Each instance counts its open leases, plus one held by the supplier
+/// while it is current; `invalidate()` drops the supplier's share and the closer runs exactly once,
+/// when the last lease is released. New callers get the new instance in the meantime.
+///
+/// `get()` takes no lease, so an instance returned by it may be closed as soon as the supplier is
+/// invalidated; use it only where that cannot happen or does not matter.
+///
+/// Initialization is double-checked locking on a `ReentrantLock` (see
+/// `ReentrantLockCachingSupplier`); invalidation takes the same lock, so it never races with it.
+///
+/// ## Example
+/// ```java
+/// final ResettableCachingSupplier<Pool> pool = new ResettableCachingSupplier<>(Pool::open, Pool::close);
+/// try (ResettableCachingSupplier.Lease<Pool> lease = pool.acquire()) {
+///     lease.get().query(sql);
+/// }
+/// pool.invalidate(); // e.g. after a credential rotation; closed once the query above finishes
+/// ```
+///
+@ThreadSafe
+public class ResettableCachingSupplier<T> implements CachingSupplier<T>, AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResettableCachingSupplier.class);
+
+    private final ReentrantLock lock;
+    private final Supplier<T> delegate;
+    private final Consumer<? super T> closer;
+    @GuardedBy("lock") // written under the lock, read without it
+    private volatile Generation<T> current;
+    @GuardedBy("lock")
+    private volatile boolean closed;
+
+    public ResettableCachingSupplier(final Supplier<T> delegate, final Consumer<? super T> closer) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null!");
+        this.closer = Objects.requireNonNull(closer, "closer must not be null!");
+        this.lock = new ReentrantLock();
+        this.current = null;
+        this.closed = false;
+    }
+
+    /// @return the current instance, initializing one if there is none
+    /// @throws IllegalStateException if the supplier has been closed
+    @Override
+    public @NonNull T get() {
+        return generation().instance();
+    }
+
+    /// @return a lease on the current instance that keeps it open until the lease is closed
+    /// @throws IllegalStateException if the supplier has been closed
+    public Lease<T> acquire() {
+        while (true) {
+            final Generation<T> generation = generation();
+            if (generation.retain()) {
+                return new Lease<>(generation);
+            }
+            // invalidated between the read and the retain; retry with the next instance
+        }
+    }
+
+    /// Stops handing out the current instance; it is closed once its last lease is released, and
+    /// the next access initializes a new one. Does nothing if there is no current instance.
+    public void invalidate() {
+        final Generation<T> invalidated;
+        lock.lock();
+        try {
+            invalidated = current;
+            current = null;
+        } finally {
+            lock.unlock();
+        }
+        if (invalidated != null) {
+            invalidated.release();
+        }
+    }
+
+    /// Invalidates the current instance and rejects any further access.
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        invalidate();
+    }
+
+    private Generation<T> generation() {
+        final Generation<T> result = current;
+        if (result != null) { // first check (no locking)
+            return result;
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("CachingSupplier is closed");
+            }
+            if (current == null) { // second check (with locking)
+                current = new Generation<>(Objects.requireNonNull(delegate.get(), "Delegate returned null"), closer);
+            }
+            return current;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// A lease on one instance; closing it may close the instance if it has been invalidated.
+    public static final class Lease<T> implements AutoCloseable {
+        private final Generation<T> generation;
+        private boolean released;
+
+        private Lease(final Generation<T> generation) {
+            this.generation = generation;
+            this.released = false;
+        }
+
+        public @NonNull T get() {
+            return generation.instance();
+        }
+
+        @Override
+        public void close() {
+            if (!released) { // a lease is confined to one thread, like the block that opened it
+                released = true;
+                generation.release();
+            }
+        }
+    }
+
+    private static final class Generation<T> {
+        private final T instance;
+        private final Consumer<? super T> closer;
+        private final AtomicInteger references;
+
+        private Generation(final T instance, final Consumer<? super T> closer) {
+            this.instance = instance;
+            this.closer = closer;
+            this.references = new AtomicInteger(1); // held by the supplier while current
+        }
+
+        private T instance() {
+            return instance;
+        }
+
+        /// @return whether a reference was taken; false once the instance is being closed
+        private boolean retain() {
+            int count;
+            do {
+                count = references.get();
+                if (count == 0) {
+                    return false;
+                }
+            } while (!references.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                try {
+                    closer.accept(instance);
+                } catch (final RuntimeException exception) {
+                    LOGGER.warn("Closing an invalidated instance failed.", exception);
+                }
+            }
+        }
+    }
+}
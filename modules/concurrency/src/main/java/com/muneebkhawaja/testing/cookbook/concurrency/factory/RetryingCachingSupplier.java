@@ -0,0 +1,157 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.metrics.ConcurrentHistogram;
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import org.jspecify.annotations.NonNull;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+///
+/// `CachingSupplier` for delegates that may fail while a dependency is still starting (e.g. the
+/// database is not ready yet), without every caller hammering it with its own attempt.
+///
+/// ## Backoff
+/// Attempts run one at a time, under a `ReentrantLock`. When an attempt fails, its exception is
+/// cached for a backoff window: until the window ends, callers fail fast with an
+/// `IllegalStateException` caused by it, instead of retrying. The window doubles with every
+/// consecutive failure, from `initialBackoff` up to `maximumBackoff`, and is jittered to a random
+/// point in its upper half so that instances restarted together do not retry together. The first
+/// call after the window tries again; a success is cached forever, like any `CachingSupplier`.
+///
+/// ## Metrics
+/// `getAttempts()` and `getFailures()` count calls to the delegate; `getInitLatencies()` records
+/// how long each of them took, in nanoseconds.
+///
+/// ## Example
+/// ```java
+/// final RetryingCachingSupplier<DataSource> dataSource = new RetryingCachingSupplier<>(
+///         this::connect, Duration.ofMillis(100), Duration.ofSeconds(30));
+/// ```
+///
+@ThreadSafe
+public class RetryingCachingSupplier<T> implements CachingSupplier<T> {
+    private final Supplier<T> delegate;
+    private final long initialBackoffMillis;
+    private final long maximumBackoffMillis;
+    private final Clock clock;
+    private final ReentrantLock lock;
+    private final LongAdder attempts;
+    private final LongAdder failures;
+    private final ConcurrentHistogram initLatencies;
+    @GuardedBy("lock")
+    private volatile T instance;
+    @GuardedBy("lock") // written under the lock, read without it
+    private volatile Failure failure;
+
+    public RetryingCachingSupplier(final Supplier<T> delegate, final Duration initialBackoff, final Duration maximumBackoff) {
+        this(delegate, initialBackoff, maximumBackoff, Clock.systemUTC());
+    }
+
+    public RetryingCachingSupplier(
+            final Supplier<T> delegate,
+            final Duration initialBackoff,
+            final Duration maximumBackoff,
+            final Clock clock
+    ) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null!");
+        Objects.requireNonNull(initialBackoff, "initialBackoff must not be null!");
+        Objects.requireNonNull(maximumBackoff, "maximumBackoff must not be null!");
+        this.clock = Objects.requireNonNull(clock, "clock must not be null!");
+        if (initialBackoff.toMillis() < 1) {
+            throw new IllegalArgumentException("initialBackoff must be at least one millisecond.");
+        }
+        if (maximumBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("maximumBackoff must not be shorter than initialBackoff.");
+        }
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maximumBackoffMillis = maximumBackoff.toMillis();
+        this.lock = new ReentrantLock();
+        this.attempts = new LongAdder();
+        this.failures = new LongAdder();
+        this.initLatencies = new ConcurrentHistogram();
+        this.instance = null;
+        this.failure = null;
+    }
+
+    /// @throws IllegalStateException if the last attempt failed and its backoff window is still open
+    @Override
+    public @NonNull T get() {
+        final T result = instance;
+        if (result != null) {
+            return result;
+        }
+        throwIfBackingOff();
+        lock.lock();
+        try {
+            if (instance == null) {
+                throwIfBackingOff(); // another caller's attempt may have just failed
+                instance = attempt();
+            }
+            return instance;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// @return the number of times the delegate was called
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    /// @return the number of times the delegate failed
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /// @return how long each call to the delegate took, in nanoseconds
+    public ConcurrentHistogram getInitLatencies() {
+        return initLatencies;
+    }
+
+    @GuardedBy("lock")
+    private T attempt() {
+        attempts.increment();
+        final long start = System.nanoTime();
+        try {
+            final T value = Objects.requireNonNull(delegate.get(), "Delegate returned null");
+            failure = null;
+            return value;
+        } catch (final RuntimeException exception) {
+            failures.increment();
+            final Failure previous = failure;
+            final int consecutiveFailures = previous == null ? 1 : previous.consecutiveFailures() + 1;
+            failure = new Failure(exception, clock.millis() + backoffMillis(consecutiveFailures), consecutiveFailures);
+            throw exception;
+        } finally {
+            initLatencies.record(System.nanoTime() - start);
+        }
+    }
+
+    private long backoffMillis(final int consecutiveFailures) {
+        final int doublings = Math.min(consecutiveFailures - 1, Long.SIZE - 2);
+        final long ceiling = initialBackoffMillis > maximumBackoffMillis >> doublings
+                ? maximumBackoffMillis
+                : initialBackoffMillis << doublings;
+        final long half = ceiling / 2;
+        return ceiling - half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private void throwIfBackingOff() {
+        final Failure current = failure;
+        if (current != null && clock.millis() < current.retryAt()) {
+            throw new IllegalStateException("Initialization failed " + current.consecutiveFailures()
+                    + " time(s); next attempt after " + Instant.ofEpochMilli(current.retryAt()), current.cause());
+        }
+    }
+
+    private record Failure(RuntimeException cause, long retryAt, int consecutiveFailures) {
+    }
+}
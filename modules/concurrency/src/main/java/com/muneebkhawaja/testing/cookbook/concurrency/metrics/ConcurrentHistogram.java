@@ -0,0 +1,121 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.metrics;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+///
+/// Lock-free histogram of non-negative `long` values, e.g. latencies in nanoseconds.
+///
+/// Buckets are log-linear, in the style of HdrHistogram: every power of two is split into
+/// 16 linear sub-buckets, so any recorded value is reported within 1/16 (6.25%) of its true value
+/// while the whole `long` range fits into 960 counters. Recording is one atomic increment per
+/// counter and never allocates.
+///
+/// Reads are not a point-in-time snapshot of concurrent recordings.
+///
+@ThreadSafe
+public final class ConcurrentHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    public ConcurrentHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /// @param value value to record; must not be negative
+    public void record(final long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative");
+        }
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /// Adds every value recorded by `other` to this histogram, e.g. to merge per-thread histograms
+    /// once the threads are done, so they never contend on the same counters while recording.
+    ///
+    /// @param other histogram to add; not modified
+    public void add(final ConcurrentHistogram other) {
+        Objects.requireNonNull(other, "other must not be null!");
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            final long bucketCount = other.counts.get(bucket);
+            if (bucketCount != 0) {
+                counts.addAndGet(bucket, bucketCount);
+            }
+        }
+        count.add(other.count.sum());
+        sum.add(other.sum.sum());
+        max.accumulate(other.max.get());
+    }
+
+    /// @return the number of recorded values
+    public long count() {
+        return count.sum();
+    }
+
+    /// @return the largest recorded value, or zero if nothing was recorded
+    public long max() {
+        return max.get();
+    }
+
+    /// @return the mean of the recorded values, or zero if nothing was recorded
+    public double mean() {
+        final long recorded = count.sum();
+        return recorded == 0 ? 0 : (double) sum.sum() / recorded;
+    }
+
+    /// @param percentile percentile between 0 and 100, e.g. `99.9`
+    /// @return the upper bound of the bucket holding the requested percentile, capped at `max()`;
+    /// zero if nothing was recorded
+    public long valueAtPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100.");
+        }
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            total += counts.get(bucket);
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(bucket), max());
+            }
+        }
+        return 0;
+    }
+
+    static int bucketOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueIn(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        final long subBucket = SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,60 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveHitCounterTest {
+    private static final int THREAD_COUNT = 4;
+    private static final int HITS_PER_THREAD = 10_000;
+    private static final int MAX_CONTENDED_ROUNDS = 100;
+
+    @DisplayName("Should stay on the single atomic When it is never contended")
+    @Test
+    public void shouldStayOnTheSingleAtomicWhenItIsNeverContended() {
+        final AdaptiveHitCounter counter = new AdaptiveHitCounter(0);
+        for (int i = 0; i < HITS_PER_THREAD; i++) {
+            counter.incrementHits();
+        }
+        assertFalse(counter.isStriped());
+        assertEquals(HITS_PER_THREAD, counter.getLongHits());
+    }
+
+    @DisplayName("Should inflate and keep its hits When concurrent increments make its CAS fail")
+    @Test
+    public void shouldInflateAndKeepItsHitsWhenConcurrentIncrementsMakeItsCasFail() throws InterruptedException {
+        final AdaptiveHitCounter counter = new AdaptiveHitCounter(0);
+        counter.addHits(5);
+        long expected = 5;
+        for (int round = 0; round < MAX_CONTENDED_ROUNDS && !counter.isStriped(); round++) {
+            ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> {
+                for (int i = 0; i < HITS_PER_THREAD; i++) {
+                    counter.incrementHits();
+                }
+            });
+            expected += (long) THREAD_COUNT * HITS_PER_THREAD;
+        }
+        assertTrue(counter.isStriped(), "concurrent increments never failed a CAS");
+        assertEquals(expected, counter.getLongHits());
+        assertEquals(expected + 3, counter.addLongHits(3));
+        assertEquals(expected + 4, counter.incrementLongHits());
+        assertEquals(expected + 4, counter.resetLongHits());
+        assertEquals(0, counter.getLongHits());
+    }
+
+    @DisplayName("Should count every hit across inflation When updated concurrently with a zero threshold")
+    @Test
+    public void shouldCountEveryHitAcrossInflationWhenUpdatedConcurrentlyWithAZeroThreshold() throws InterruptedException {
+        final AdaptiveHitCounter counter = new AdaptiveHitCounter(0);
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> {
+            for (int i = 0; i < HITS_PER_THREAD; i++) {
+                counter.incrementHits();
+            }
+        });
+        assertEquals((long) THREAD_COUNT * HITS_PER_THREAD, counter.getLongHits());
+    }
+}
@@ -0,0 +1,114 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.pastalab.fray.junit.junit5.FrayTestExtension;
+import org.pastalab.fray.junit.junit5.annotations.ConcurrencyTest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(FrayTestExtension.class)
+class HeavyHitterCounterTest {
+    private static final int THREAD_COUNT = 2;
+    private static final double EPSILON = 0.001;
+    private static final double CONFIDENCE = 0.99;
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should remain consistent across multiple hits When a key is incremented concurrently")
+    @Test
+    public void shouldRemainConsistentAcrossMultipleHitsWhenAKeyIsIncrementedConcurrently() throws InterruptedException {
+        final HeavyHitterCounter<String> counter = new HeavyHitterCounter<>(new CountMinSketch(2, 16), 1);
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> counter.increment("10.0.0.1"));
+        assertEquals(THREAD_COUNT, counter.estimate("10.0.0.1"));
+        assertEquals(List.of(new HeavyHitterCounter.HeavyHitter<>("10.0.0.1", THREAD_COUNT)), counter.topK());
+    }
+
+    @DisplayName("Should stay within the error bound When estimating a skewed stream")
+    @Test
+    public void shouldStayWithinTheErrorBoundWhenEstimatingASkewedStream() {
+        final HeavyHitterCounter<Integer> counter = new HeavyHitterCounter<>(CountMinSketch.withErrorBounds(EPSILON, CONFIDENCE), 5);
+        final Map<Integer, Long> exact = new HashMap<>();
+        final SplittableRandom random = new SplittableRandom(42);
+        final int hits = 200_000;
+        for (int i = 0; i < hits; i++) {
+            final int key = skewedKey(random, 100_000);
+            exact.merge(key, 1L, Long::sum);
+            counter.increment(key);
+        }
+
+        final long allowedError = (long) (EPSILON * hits);
+        final long withinBound = exact.entrySet().stream()
+                .filter(entry -> {
+                    final long estimate = counter.estimate(entry.getKey());
+                    assertTrue(estimate >= entry.getValue(), "count-min sketches never under-count");
+                    return estimate - entry.getValue() <= allowedError;
+                })
+                .count();
+        assertTrue(withinBound >= CONFIDENCE * exact.size());
+    }
+
+    @DisplayName("Should report the most frequent keys first When asked for the top K")
+    @Test
+    public void shouldReportTheMostFrequentKeysFirstWhenAskedForTheTopK() {
+        final HeavyHitterCounter<String> counter = new HeavyHitterCounter<>(CountMinSketch.withErrorBounds(EPSILON, CONFIDENCE), 3);
+        final SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 10_000; i++) {
+            counter.increment("noise-" + random.nextInt(5_000));
+        }
+        for (int hot = 1; hot <= 4; hot++) {
+            for (int i = 0; i < hot * 1_000; i++) {
+                counter.increment("hot-" + hot);
+            }
+        }
+        assertEquals(
+                List.of("hot-4", "hot-3", "hot-2"),
+                counter.topK().stream().map(HeavyHitterCounter.HeavyHitter::key).toList()
+        );
+    }
+
+    @DisplayName("Should keep the hottest keys as candidates When a skewed stream is counted from many threads")
+    @Test
+    public void shouldKeepTheHottestKeysAsCandidatesWhenASkewedStreamIsCountedFromManyThreads() throws InterruptedException {
+        final int threadCount = 8;
+        final HeavyHitterCounter<Integer> counter = new HeavyHitterCounter<>(CountMinSketch.withErrorBounds(EPSILON, CONFIDENCE), 3);
+        final int[] stream = new int[50_000];
+        final SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < stream.length; i++) {
+            stream[i] = skewedKey(random, 10_000);
+        }
+
+        ConcurrentTestUtils.runConcurrently(threadCount, () -> {
+            for (final int key : stream) {
+                counter.increment(key);
+            }
+        });
+
+        final Map<Integer, Long> exact = new HashMap<>();
+        for (final int key : stream) {
+            exact.merge(key, (long) threadCount, Long::sum);
+        }
+        final List<Integer> hottest = exact.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed())
+                .limit(3)
+                .map(Map.Entry::getKey)
+                .toList();
+        final List<HeavyHitterCounter.HeavyHitter<Integer>> topK = counter.topK();
+        assertEquals(hottest, topK.stream().map(HeavyHitterCounter.HeavyHitter::key).toList());
+        topK.forEach(heavyHitter -> assertTrue(heavyHitter.estimate() >= exact.get(heavyHitter.key()), "no increment may be lost"));
+    }
+
+    /// Log-uniform draw from `[0, keySpace)`: roughly Zipfian, so a few keys take most hits.
+    private static int skewedKey(final SplittableRandom random, final int keySpace) {
+        return (int) Math.pow(keySpace, random.nextDouble()) - 1;
+    }
+}
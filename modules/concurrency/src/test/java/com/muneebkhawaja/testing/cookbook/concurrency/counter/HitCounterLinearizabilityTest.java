@@ -0,0 +1,77 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import com.muneebkhawaja.testing.cookbook.concurrency.support.HitCounterHistory;
+import com.muneebkhawaja.testing.cookbook.concurrency.support.LinearizabilityChecker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.pastalab.fray.junit.junit5.FrayTestExtension;
+import org.pastalab.fray.junit.junit5.annotations.ConcurrencyTest;
+
+///
+/// Checks every result of concurrent operations, not only the final count.
+///
+/// `StripedHitCounter` (and `AdaptiveHitCounter` once striped) are deliberately absent: their
+/// `incrementHits()` returns a sum read after the add, which trades linearizability for throughput.
+///
+@ExtendWith(FrayTestExtension.class)
+class HitCounterLinearizabilityTest {
+    private static final int THREAD_COUNT = 2;
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should be linearizable When the lock free counter is updated concurrently")
+    @Test
+    public void shouldBeLinearizableWhenTheLockFreeCounterIsUpdatedConcurrently() throws InterruptedException {
+        linearizabilityTest(new LockFreeHitCounter());
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should be linearizable When the monitor lock counter is updated concurrently")
+    @Test
+    public void shouldBeLinearizableWhenTheMonitorLockCounterIsUpdatedConcurrently() throws InterruptedException {
+        linearizabilityTest(new MonitorLockHitCounter());
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should be linearizable When the private monitor lock counter is updated concurrently")
+    @Test
+    public void shouldBeLinearizableWhenThePrivateMonitorLockCounterIsUpdatedConcurrently() throws InterruptedException {
+        linearizabilityTest(new PrivateMonitorLockHitCounter());
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should be linearizable When the reentrant lock counter is updated concurrently")
+    @Test
+    public void shouldBeLinearizableWhenTheReentrantLockCounterIsUpdatedConcurrently() throws InterruptedException {
+        linearizabilityTest(new ReentrantLockHitCounter());
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should be linearizable When the RW lock counter is updated concurrently")
+    @Test
+    public void shouldBeLinearizableWhenTheRWLockCounterIsUpdatedConcurrently() throws InterruptedException {
+        linearizabilityTest(new RWLockHitCounter());
+    }
+
+    private void linearizabilityTest(final HitCounter counter) throws InterruptedException {
+        final HitCounterHistory history = new HitCounterHistory(counter);
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> {
+            history.incrementHits();
+            history.addHits(2);
+            history.resetHits();
+            history.getHits();
+        });
+        LinearizabilityChecker.assertLinearizable(history.operations());
+    }
+}
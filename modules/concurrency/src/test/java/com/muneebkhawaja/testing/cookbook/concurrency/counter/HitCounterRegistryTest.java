@@ -0,0 +1,79 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.pastalab.fray.junit.junit5.FrayTestExtension;
+import org.pastalab.fray.junit.junit5.annotations.ConcurrencyTest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@ExtendWith(FrayTestExtension.class)
+class HitCounterRegistryTest {
+    private static final int THREAD_COUNT = 2;
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should share one counter per key When the same key is hit concurrently")
+    @Test
+    public void shouldShareOneCounterPerKeyWhenTheSameKeyIsHitConcurrently() throws InterruptedException {
+        final HitCounterRegistry<String> registry = new HitCounterRegistry<>(LockFreeHitCounter::new, 10);
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> registry.incrementHits("/events"));
+        assertEquals(THREAD_COUNT, registry.getHits("/events"));
+        assertEquals(1, registry.size());
+    }
+
+    @DisplayName("Should count each key independently When different keys are hit")
+    @Test
+    public void shouldCountEachKeyIndependentlyWhenDifferentKeysAreHit() {
+        final HitCounterRegistry<String> registry = new HitCounterRegistry<>(StripedHitCounter::new, 10);
+        registry.incrementHits("a");
+        registry.addHits("b", 3);
+        assertSame(registry.counter("a"), registry.counter("a"));
+        assertEquals(Map.of("a", 1L, "b", 3L), registry.snapshot());
+        assertEquals(0, registry.getHits("unknown"));
+        assertEquals(2, registry.size());
+    }
+
+    @DisplayName("Should return the 64-bit count When batches take a key past Integer.MAX_VALUE")
+    @Test
+    public void shouldReturnThe64BitCountWhenBatchesTakeAKeyPastIntegerMaxValue() {
+        final HitCounterRegistry<String> registry = new HitCounterRegistry<>(LockFreeHitCounter::new, 10);
+        registry.addHits("a", Integer.MAX_VALUE);
+        assertEquals(2L * Integer.MAX_VALUE, registry.addHits("a", Integer.MAX_VALUE));
+    }
+
+    @DisplayName("Should reset every counter When the registry is drained")
+    @Test
+    public void shouldResetEveryCounterWhenTheRegistryIsDrained() {
+        final HitCounterRegistry<String> registry = new HitCounterRegistry<>(LockFreeHitCounter::new, 10);
+        registry.addHits("a", 2);
+        assertEquals(Map.of("a", 2L), registry.drain());
+        assertEquals(Map.of("a", 0L), registry.snapshot());
+    }
+
+    @DisplayName("Should evict cold keys first When the maximum number of keys is exceeded")
+    @Test
+    public void shouldEvictColdKeysFirstWhenTheMaximumNumberOfKeysIsExceeded() {
+        final HitCounterRegistry<String> registry = new HitCounterRegistry<>(LockFreeHitCounter::new, 2);
+        registry.addHits("a", 5);
+        registry.addHits("b", 5);
+        registry.addHits("c", 5); // first sweep: neither "a" nor "b" was hit again, so one of them goes
+        assertEquals(2, registry.size());
+        assertEquals(5, registry.getEvictedHits());
+
+        final String hot = registry.getHits("a") > 0 ? "a" : "b";
+        registry.incrementHits(hot);
+        registry.incrementHits("d"); // second sweep: "hot" gets a second chance, "c" does not
+        assertEquals(2, registry.size());
+        assertEquals(6, registry.getHits(hot));
+        assertEquals(1, registry.getHits("d"));
+        assertEquals(0, registry.getHits("c"));
+        assertEquals(10, registry.getEvictedHits());
+    }
+}
@@ -14,6 +14,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 class HitCounterTest {
     private static final int THREAD_COUNT = 2;
     private static final int EXPECTED_HITS = THREAD_COUNT;
+    private static final int BATCH_SIZE = 3;
+    private static final int EXPECTED_BATCH_HITS = THREAD_COUNT * (1 + BATCH_SIZE);
+    private static final int VIRTUAL_THREAD_COUNT = 10_000;
 
     @ConcurrencyTest(
             iterations = 1000
@@ -51,10 +54,108 @@ class HitCounterTest {
         hitCounterTest(new ReentrantLockHitCounter());
     }
 
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should remain consistent across multiple hits When the striped counter is updated concurrently")
+    @Test
+    public void shouldRemainConsistentAcrossMultipleHitsWhenTheStripedCounterIsUpdatedConcurrently() throws InterruptedException {
+        hitCounterTest(new StripedHitCounter());
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should remain consistent across multiple hits When the adaptive counter is updated concurrently")
+    @Test
+    public void shouldRemainConsistentAcrossMultipleHitsWhenTheAdaptiveCounterIsUpdatedConcurrently() throws InterruptedException {
+        hitCounterTest(new AdaptiveHitCounter(0)); // any contended CAS switches it to striped cells
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should remain consistent across batches When the lock free counter is updated with increments and batches concurrently")
+    @Test
+    public void shouldRemainConsistentAcrossBatchesWhenTheLockFreeCounterIsUpdatedWithIncrementsAndBatchesConcurrently() throws InterruptedException {
+        batchHitCounterTest(new LockFreeHitCounter());
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should remain consistent across batches When the monitor lock counter is updated with increments and batches concurrently")
+    @Test
+    public void shouldRemainConsistentAcrossBatchesWhenTheMonitorLockCounterIsUpdatedWithIncrementsAndBatchesConcurrently() throws InterruptedException {
+        batchHitCounterTest(new MonitorLockHitCounter());
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should remain consistent across batches When the RW lock counter is updated with increments and batches concurrently")
+    @Test
+    public void shouldRemainConsistentAcrossBatchesWhenTheRWLockCounterIsUpdatedWithIncrementsAndBatchesConcurrently() throws InterruptedException {
+        batchHitCounterTest(new RWLockHitCounter());
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should remain consistent across batches When the private lock counter is updated with increments and batches concurrently")
+    @Test
+    public void shouldRemainConsistentAcrossBatchesWhenThePrivateLockCounterIsUpdatedWithIncrementsAndBatchesConcurrently() throws InterruptedException {
+        batchHitCounterTest(new PrivateMonitorLockHitCounter());
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should remain consistent across batches When the reentrant lock counter is updated with increments and batches concurrently")
+    @Test
+    public void shouldRemainConsistentAcrossBatchesWhenTheReentrantLockCounterIsUpdatedWithIncrementsAndBatchesConcurrently() throws InterruptedException {
+        batchHitCounterTest(new ReentrantLockHitCounter());
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should remain consistent across batches When the striped counter is updated with increments and batches concurrently")
+    @Test
+    public void shouldRemainConsistentAcrossBatchesWhenTheStripedCounterIsUpdatedWithIncrementsAndBatchesConcurrently() throws InterruptedException {
+        batchHitCounterTest(new StripedHitCounter());
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should remain consistent across batches When the adaptive counter is updated with increments and batches concurrently")
+    @Test
+    public void shouldRemainConsistentAcrossBatchesWhenTheAdaptiveCounterIsUpdatedWithIncrementsAndBatchesConcurrently() throws InterruptedException {
+        batchHitCounterTest(new AdaptiveHitCounter(0));
+    }
+
+    @DisplayName("Should count every hit When thousands of virtual threads update the adaptive counter")
+    @Test
+    public void shouldCountEveryHitWhenThousandsOfVirtualThreadsUpdateTheAdaptiveCounter() throws InterruptedException {
+        final AdaptiveHitCounter counter = new AdaptiveHitCounter();
+        ConcurrentTestUtils.runConcurrentlyOnVirtualThreads(VIRTUAL_THREAD_COUNT, counter::incrementHits);
+        assertEquals(VIRTUAL_THREAD_COUNT, counter.getLongHits());
+    }
 
     private void hitCounterTest(final HitCounter counter) throws InterruptedException {
         ConcurrentTestUtils.runConcurrently(THREAD_COUNT, counter::incrementHits);
         assertEquals(EXPECTED_HITS, counter.getHits());
+        assertEquals(EXPECTED_HITS, counter.getLongHits());
+    }
+
+    private void batchHitCounterTest(final HitCounter counter) throws InterruptedException {
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> {
+            counter.incrementHits();
+            counter.addHits(BATCH_SIZE);
+        });
+        assertEquals(EXPECTED_BATCH_HITS, counter.getHits());
+        assertEquals(EXPECTED_BATCH_HITS, counter.getLongHits());
     }
 
 }
\ No newline at end of file
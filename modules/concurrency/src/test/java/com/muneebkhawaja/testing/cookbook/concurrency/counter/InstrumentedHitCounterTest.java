@@ -0,0 +1,103 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class InstrumentedHitCounterTest {
+    private static final int THREAD_COUNT = 4;
+
+    @TempDir
+    private Path directory;
+
+    @DisplayName("Should record wait, hold and queue length When the delegate has an explicit lock")
+    @Test
+    public void shouldRecordWaitHoldAndQueueLengthWhenTheDelegateHasAnExplicitLock() throws InterruptedException {
+        final InstrumentedHitCounter counter = new InstrumentedHitCounter(new RWLockHitCounter());
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, counter::incrementHits);
+        counter.addHits(3);
+        assertEquals(THREAD_COUNT + 3, counter.getHits());
+
+        final long operations = THREAD_COUNT + 2;
+        assertEquals(operations, counter.getLatencies().count());
+        assertEquals(operations, counter.getWaitTimes().count());
+        assertEquals(operations, counter.getHoldTimes().count());
+        assertEquals(operations, counter.getQueueLengths().count());
+    }
+
+    @DisplayName("Should only record latencies When the delegate has no explicit lock")
+    @Test
+    public void shouldOnlyRecordLatenciesWhenTheDelegateHasNoExplicitLock() {
+        final InstrumentedHitCounter counter = new InstrumentedHitCounter(new MonitorLockHitCounter());
+        counter.incrementHits();
+        assertEquals(1, counter.resetHits());
+        assertEquals(2, counter.getLatencies().count());
+        assertEquals(0, counter.getWaitTimes().count());
+        assertEquals(0, counter.getQueueLengths().count());
+    }
+
+    @DisplayName("Should split a batch into int sized calls When the delegate only counts with ints")
+    @Test
+    public void shouldSplitABatchIntoIntSizedCallsWhenTheDelegateOnlyCountsWithInts() {
+        final List<Integer> deltas = new ArrayList<>();
+        final InstrumentedHitCounter counter = new InstrumentedHitCounter(new HitCounter() {
+            @Override
+            public int getHits() {
+                return 0;
+            }
+
+            @Override
+            public int incrementHits() {
+                return 1;
+            }
+
+            @Override
+            public int resetHits() {
+                return 0;
+            }
+
+            @Override
+            public int addHits(final int delta) {
+                deltas.add(delta);
+                return delta;
+            }
+        });
+        counter.addLongHits(2L * Integer.MAX_VALUE + 5);
+        assertEquals(List.of(Integer.MAX_VALUE, Integer.MAX_VALUE, 5), deltas);
+        assertEquals(1, counter.getLatencies().count());
+    }
+
+    @DisplayName("Should emit a JFR event When an operation exceeds the threshold")
+    @Test
+    public void shouldEmitAJfrEventWhenAnOperationExceedsTheThreshold() throws IOException {
+        final InstrumentedHitCounter counter = new InstrumentedHitCounter(new ReentrantLockHitCounter());
+        final Path dump = directory.resolve("contention.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(HitCounterContentionEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            counter.incrementHits();
+            recording.stop();
+            recording.dump(dump);
+        }
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().endsWith("HitCounterContention"))
+                .toList();
+        assertFalse(events.isEmpty());
+        assertEquals("ReentrantLockHitCounter", events.getFirst().getString("counter"));
+        assertEquals("incrementHits", events.getFirst().getString("operation"));
+        assertEquals(0, events.getFirst().getInt("queueLength"));
+    }
+}
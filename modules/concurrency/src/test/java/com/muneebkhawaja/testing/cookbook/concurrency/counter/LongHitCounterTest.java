@@ -0,0 +1,86 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongHitCounterTest {
+    private static final long BEYOND_INT_RANGE = Integer.MAX_VALUE + 10L;
+
+    @DisplayName("Should saturate the int view When the count exceeds Integer.MAX_VALUE")
+    @Test
+    public void shouldSaturateTheIntViewWhenTheCountExceedsIntegerMaxValue() {
+        final LongHitCounter counter = new FixedLongHitCounter(BEYOND_INT_RANGE);
+        assertEquals(BEYOND_INT_RANGE, counter.getLongHits());
+        assertEquals(Integer.MAX_VALUE, counter.getHits());
+        assertEquals(Integer.MAX_VALUE, counter.incrementHits());
+        assertEquals(Integer.MAX_VALUE, counter.resetHits());
+        assertEquals(Integer.MAX_VALUE, counter.addHits(1));
+    }
+
+    @DisplayName("Should widen the int value When a plain HitCounter is read as a long")
+    @Test
+    public void shouldWidenTheIntValueWhenAPlainHitCounterIsReadAsALong() {
+        final HitCounter counter = new HitCounter() {
+            @Override
+            public int getHits() {
+                return 1;
+            }
+
+            @Override
+            public int incrementHits() {
+                return 2;
+            }
+
+            @Override
+            public int resetHits() {
+                return 3;
+            }
+        };
+        assertEquals(1L, counter.getLongHits());
+        assertEquals(2L, counter.incrementLongHits());
+        assertEquals(3L, counter.resetLongHits());
+    }
+
+    @DisplayName("Should increment and reset the 64-bit count When using the long methods")
+    @Test
+    public void shouldIncrementAndResetThe64BitCountWhenUsingTheLongMethods() {
+        final LongHitCounter counter = new LockFreeHitCounter();
+        counter.incrementLongHits();
+        assertEquals(1L, counter.getLongHits());
+        assertEquals(1L, counter.resetLongHits());
+        assertEquals(0L, counter.getLongHits());
+    }
+
+    @DisplayName("Should reject a negative delta When hits are added in bulk")
+    @Test
+    public void shouldRejectANegativeDeltaWhenHitsAreAddedInBulk() {
+        final LongHitCounter counter = new LockFreeHitCounter();
+        assertThrows(IllegalArgumentException.class, () -> counter.addHits(-1));
+        assertEquals(5L, counter.addLongHits(5));
+    }
+
+    private record FixedLongHitCounter(long hits) implements LongHitCounter {
+        @Override
+        public long getLongHits() {
+            return hits;
+        }
+
+        @Override
+        public long incrementLongHits() {
+            return hits;
+        }
+
+        @Override
+        public long resetLongHits() {
+            return hits;
+        }
+
+        @Override
+        public long addLongHits(final long delta) {
+            return hits;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/// Each `SharedMemoryHitCounters.open(...)` is a separate mapping of the file, just like the one a
+/// second process would get.
+class SharedMemoryHitCountersTest {
+    private static final int THREAD_COUNT = 4;
+    private static final int HITS_PER_THREAD = 1_000;
+
+    @TempDir
+    private Path directory;
+
+    @DisplayName("Should share counts When the same file is mapped twice")
+    @Test
+    public void shouldShareCountsWhenTheSameFileIsMappedTwice() throws IOException {
+        final Path file = directory.resolve("hits");
+        try (SharedMemoryHitCounters first = SharedMemoryHitCounters.open(file, 16);
+             SharedMemoryHitCounters second = SharedMemoryHitCounters.open(file, 16)) {
+            first.counter("/events").incrementHits();
+            second.counter("/events").addHits(2);
+            second.counter("/health").incrementHits();
+
+            assertEquals(3, first.counter("/events").getLongHits());
+            assertEquals(Map.of("/events", 3L, "/health", 1L), first.snapshot());
+        }
+        try (SharedMemoryHitCounters reopened = SharedMemoryHitCounters.open(file, 16)) {
+            assertEquals(3, reopened.counter("/events").resetLongHits());
+        }
+    }
+
+    @DisplayName("Should remain consistent across multiple hits When two mappings are updated concurrently")
+    @Test
+    public void shouldRemainConsistentAcrossMultipleHitsWhenTwoMappingsAreUpdatedConcurrently() throws IOException, InterruptedException {
+        final Path file = directory.resolve("hits");
+        try (SharedMemoryHitCounters first = SharedMemoryHitCounters.open(file, 16);
+             SharedMemoryHitCounters second = SharedMemoryHitCounters.open(file, 16)) {
+            ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> {
+                final HitCounter left = first.counter("hits");
+                final HitCounter right = second.counter("hits");
+                for (int i = 0; i < HITS_PER_THREAD; i++) {
+                    left.incrementHits();
+                    right.incrementHits();
+                }
+            });
+            assertEquals(2L * THREAD_COUNT * HITS_PER_THREAD, first.counter("hits").getLongHits());
+        }
+    }
+
+    @DisplayName("Should fail When every slot is taken")
+    @Test
+    public void shouldFailWhenEverySlotIsTaken() throws IOException {
+        try (SharedMemoryHitCounters counters = SharedMemoryHitCounters.open(directory.resolve("hits"), 1)) {
+            counters.counter("first");
+            assertThrows(IllegalStateException.class, () -> counters.counter("second"));
+            assertThrows(IllegalArgumentException.class, () -> counters.counter("x".repeat(49)));
+        }
+    }
+
+    @DisplayName("Should refuse to map a file When it is not a counter region")
+    @Test
+    public void shouldRefuseToMapAFileWhenItIsNotACounterRegion() throws IOException {
+        final Path file = Files.write(directory.resolve("not-counters"), "x".repeat(256).getBytes());
+        assertThrows(IllegalStateException.class, () -> SharedMemoryHitCounters.open(file, 16));
+    }
+
+    @DisplayName("Should keep the capacity in the header When reopened with another capacity or resized")
+    @Test
+    public void shouldKeepTheCapacityInTheHeaderWhenReopenedWithAnotherCapacityOrResized() throws IOException {
+        final Path file = directory.resolve("hits");
+        try (SharedMemoryHitCounters created = SharedMemoryHitCounters.open(file, 16);
+             SharedMemoryHitCounters reopened = SharedMemoryHitCounters.open(file, 64)) {
+            assertEquals(16, created.capacity());
+            assertEquals(16, reopened.capacity());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(64), channel.size()); // one slot more than the header says
+        }
+        assertThrows(IllegalStateException.class, () -> SharedMemoryHitCounters.open(file, 16));
+    }
+
+    @DisplayName("Should give up on a slot and free it on request When its claiming process died")
+    @Test
+    public void shouldGiveUpOnASlotAndFreeItOnRequestWhenItsClaimingProcessDied() throws IOException {
+        final Path file = directory.resolve("hits");
+        try (SharedMemoryHitCounters counters = SharedMemoryHitCounters.open(file, 1)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                // the state of the only slot, left at -1 (claiming) by a process that died
+                channel.write(ByteBuffer.allocate(Long.BYTES).order(ByteOrder.nativeOrder()).putLong(0, -1L), 64 + 8);
+            }
+            assertThrows(IllegalStateException.class, () -> counters.counter("events"));
+            assertEquals(1, counters.releaseAbandonedClaims());
+            assertEquals(1, counters.counter("events").incrementLongHits());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.counter;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import com.muneebkhawaja.testing.cookbook.concurrency.support.MutableClock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.pastalab.fray.junit.junit5.FrayTestExtension;
+import org.pastalab.fray.junit.junit5.annotations.ConcurrencyTest;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(FrayTestExtension.class)
+class SlidingWindowHitCounterTest {
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Duration WINDOW = Duration.ofSeconds(10);
+    private static final int BUCKETS = 10;
+    private static final int THREAD_COUNT = 2;
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should remain consistent across multiple hits When the window is updated concurrently")
+    @Test
+    public void shouldRemainConsistentAcrossMultipleHitsWhenTheWindowIsUpdatedConcurrently() throws InterruptedException {
+        final SlidingWindowHitCounter counter = new SlidingWindowHitCounter(LockFreeHitCounter::new, WINDOW, BUCKETS, new MutableClock(NOW));
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, counter::incrementHits);
+        assertEquals(THREAD_COUNT, counter.getHits());
+    }
+
+    @DisplayName("Should forget hits When they slide out of the window")
+    @Test
+    public void shouldForgetHitsWhenTheySlideOutOfTheWindow() {
+        final MutableClock clock = new MutableClock(NOW);
+        final SlidingWindowHitCounter counter = new SlidingWindowHitCounter(StripedHitCounter::new, WINDOW, BUCKETS, clock);
+        counter.addHits(5);
+        clock.advance(Duration.ofSeconds(4));
+        counter.addHits(15);
+        assertEquals(20, counter.getHits());
+        assertEquals(2.0, counter.getHitsPerSecond());
+
+        clock.advance(Duration.ofSeconds(6)); // the first 5 hits are now 10 seconds old
+        assertEquals(15, counter.getHits());
+
+        clock.advance(WINDOW);
+        assertEquals(0, counter.getHits());
+    }
+
+    @DisplayName("Should reuse a bucket's slot When the ring wraps around")
+    @Test
+    public void shouldReuseABucketsSlotWhenTheRingWrapsAround() {
+        final MutableClock clock = new MutableClock(NOW);
+        final SlidingWindowHitCounter counter = new SlidingWindowHitCounter(LockFreeHitCounter::new, WINDOW, BUCKETS, clock);
+        counter.addHits(3);
+        clock.advance(WINDOW); // same slot in the ring, one full window later
+        counter.incrementHits();
+        assertEquals(1, counter.getHits());
+    }
+
+    @DisplayName("Should reject the window When it does not split evenly into buckets")
+    @Test
+    public void shouldRejectTheWindowWhenItDoesNotSplitEvenlyIntoBuckets() {
+        final MutableClock clock = new MutableClock(NOW);
+        assertThrows(IllegalArgumentException.class,
+                () -> new SlidingWindowHitCounter(LockFreeHitCounter::new, Duration.ofMillis(1000), 3, clock));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SlidingWindowHitCounter(LockFreeHitCounter::new, Duration.ofNanos(10_000_500), 10, clock));
+    }
+}
@@ -0,0 +1,100 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.pastalab.fray.junit.junit5.FrayTestExtension;
+import org.pastalab.fray.junit.junit5.annotations.ConcurrencyTest;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(FrayTestExtension.class)
+class AsyncCachingSupplierTest {
+    private static final int THREAD_COUNT = 2;
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should load only once and share one value When the supplier is invoked by multiple threads")
+    @Test
+    public void shouldLoadOnlyOnceAndShareOneValueWhenTheSupplierIsInvokedByMultipleThreads() throws InterruptedException {
+        final AtomicInteger loads = new AtomicInteger();
+        final AsyncCachingSupplier<Object> supplier = new AsyncCachingSupplier<>(() -> {
+            loads.incrementAndGet();
+            return new Object();
+        }, Runnable::run);
+        final Set<Object> values = ConcurrentHashMap.newKeySet();
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> values.add(supplier.get().join()));
+        assertEquals(1, loads.get());
+        assertEquals(1, values.size());
+        assertSame(values.iterator().next(), supplier.get().join());
+    }
+
+    @DisplayName("Should not block the caller When the delegate has not run yet")
+    @Test
+    public void shouldNotBlockTheCallerWhenTheDelegateHasNotRunYet() {
+        final Queue<Runnable> loads = new ArrayDeque<>();
+        final AsyncCachingSupplier<String> supplier = new AsyncCachingSupplier<>(() -> "catalog", loads::add);
+        final CompletableFuture<String> future = supplier.get();
+        assertFalse(future.isDone());
+        assertFalse(supplier.get().isDone());
+        assertEquals(1, loads.size());
+
+        loads.remove().run();
+        assertEquals("catalog", future.join());
+    }
+
+    @DisplayName("Should start loading at construction When the supplier is eager")
+    @Test
+    public void shouldStartLoadingAtConstructionWhenTheSupplierIsEager() {
+        final Queue<Runnable> loads = new ArrayDeque<>();
+        AsyncCachingSupplier.eager(() -> "catalog", loads::add);
+        assertEquals(1, loads.size());
+    }
+
+    @DisplayName("Should retry the load When the previous load failed")
+    @Test
+    public void shouldRetryTheLoadWhenThePreviousLoadFailed() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final AsyncCachingSupplier<Integer> supplier = new AsyncCachingSupplier<>(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("catalog unavailable");
+            }
+            return attempts.get();
+        }, Runnable::run);
+        final CompletableFuture<Integer> failed = supplier.get();
+        assertThrows(CompletionException.class, failed::join);
+        assertEquals(2, supplier.get().join());
+        assertEquals(2, supplier.get().join());
+        assertEquals(2, attempts.get());
+    }
+
+    @DisplayName("Should not affect other callers When a caller cancels or completes its future")
+    @Test
+    public void shouldNotAffectOtherCallersWhenACallerCancelsOrCompletesItsFuture() {
+        final AtomicInteger loads = new AtomicInteger();
+        final Queue<Runnable> pending = new ArrayDeque<>();
+        final AsyncCachingSupplier<Integer> supplier = new AsyncCachingSupplier<>(loads::incrementAndGet, pending::add);
+        assertTrue(supplier.get().cancel(false));
+        assertTrue(supplier.get().complete(42));
+        supplier.get().obtrudeValue(42);
+        final CompletableFuture<Integer> other = supplier.get();
+        pending.forEach(Runnable::run);
+        assertEquals(1, other.join());
+        assertEquals(1, supplier.get().join());
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,123 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.pastalab.fray.junit.junit5.FrayTestExtension;
+import org.pastalab.fray.junit.junit5.annotations.ConcurrencyTest;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(FrayTestExtension.class)
+class CachingFunctionTest {
+    private static final int THREAD_COUNT = 2;
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should compute each key only once When the same key is requested concurrently")
+    @Test
+    public void shouldComputeEachKeyOnlyOnceWhenTheSameKeyIsRequestedConcurrently() throws InterruptedException {
+        final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+        final CachingFunction<String, Object> function = new CachingFunction<>(key -> {
+            loads.computeIfAbsent(key, _ -> new AtomicInteger()).incrementAndGet();
+            return new Object();
+        }, 10);
+        final Set<Object> values = ConcurrentHashMap.newKeySet();
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> {
+            values.add(function.apply("acme"));
+            function.apply("globex");
+        });
+        assertEquals(1, loads.get("acme").get());
+        assertEquals(1, loads.get("globex").get());
+        assertEquals(1, values.size());
+        assertSame(values.iterator().next(), function.apply("acme"));
+    }
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should compute each key only once When the atomic strategy is used concurrently")
+    @Test
+    public void shouldComputeEachKeyOnlyOnceWhenTheAtomicStrategyIsUsedConcurrently() throws InterruptedException {
+        final AtomicInteger loads = new AtomicInteger();
+        final CachingFunction<String, Object> function = new CachingFunction<>(_ -> {
+            loads.incrementAndGet();
+            return new Object();
+        }, 10, AtomicSafeInitializerCachingSupplier::new);
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> function.apply("acme"));
+        assertEquals(1, loads.get());
+    }
+
+    @DisplayName("Should retry the load When the delegate failed for that key")
+    @Test
+    public void shouldRetryTheLoadWhenTheDelegateFailedForThatKey() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final CachingFunction<String, Integer> function = new CachingFunction<>(_ -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("tenant unavailable");
+            }
+            return attempts.get();
+        }, 10);
+        assertThrows(IllegalStateException.class, () -> function.apply("acme"));
+        assertEquals(2, function.apply("acme"));
+        assertEquals(2, function.apply("acme"));
+    }
+
+    @DisplayName("Should evict cold keys first When the maximum number of keys is exceeded")
+    @Test
+    public void shouldEvictColdKeysFirstWhenTheMaximumNumberOfKeysIsExceeded() {
+        final CachingFunction<String, Object> function = new CachingFunction<>(_ -> new Object(), 2);
+        final Object hot = function.apply("hot");
+        function.apply("hot"); // referenced, so it survives the first sweep
+        final Object cold = function.apply("cold");
+        function.apply("new");
+        assertEquals(2, function.size());
+        assertSame(hot, function.apply("hot"));
+        assertNotSame(cold, function.apply("cold"));
+    }
+
+    @DisplayName("Should not evict a key When its first load is still running")
+    @Test
+    public void shouldNotEvictAKeyWhenItsFirstLoadIsStillRunning() throws InterruptedException {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger slowLoads = new AtomicInteger();
+        final CachingFunction<String, Object> function = new CachingFunction<>(key -> {
+            if (key.equals("slow")) {
+                slowLoads.incrementAndGet();
+                loading.countDown();
+                awaitUninterruptibly(release);
+            }
+            return new Object();
+        }, 1);
+        final Thread loader = Thread.ofVirtual().start(() -> function.apply("slow"));
+        loading.await();
+
+        function.apply("other"); // the sweep must skip "slow", so the bound is briefly exceeded
+        assertEquals(2, function.size());
+        release.countDown();
+        loader.join();
+        function.apply("slow");
+        assertEquals(1, slowLoads.get());
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+}
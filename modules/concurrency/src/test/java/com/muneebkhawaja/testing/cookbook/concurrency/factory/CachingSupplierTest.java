@@ -14,7 +14,10 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(FrayTestExtension.class)
 class CachingSupplierTest {
@@ -45,6 +48,15 @@ class CachingSupplierTest {
         cachingSupplierTest(PrivateMonitorLockCachingSupplier::new);
     }
 
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should initialize only once atomically When the ReentrantLockCachingSupplier is invoked by multiple threads")
+    @Test
+    public void shouldInitializeOnlyOnceAtomicallyWhenTheReentrantLockCachingSupplierIsInvokedByMultipleThreads() throws InterruptedException {
+        cachingSupplierTest(ReentrantLockCachingSupplier::new);
+    }
+
     @ConcurrencyTest(
             iterations = 1000
     )
@@ -63,6 +75,69 @@ class CachingSupplierTest {
         cachingSupplierTest(AtomicSafeInitializerCachingSupplier::new);
     }
 
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should initialize only once atomically When the ResettableCachingSupplier is invoked by multiple threads")
+    @Test
+    public void shouldInitializeOnlyOnceAtomicallyWhenTheResettableCachingSupplierIsInvokedByMultipleThreads() throws InterruptedException {
+        cachingSupplierTest(delegate -> new ResettableCachingSupplier<>(delegate, _ -> {
+        }));
+    }
+
+    @DisplayName("Should build the selected implementation When a strategy is given")
+    @Test
+    public void shouldBuildTheSelectedImplementationWhenAStrategyIsGiven() {
+        assertInstanceOf(ReentrantLockCachingSupplier.class, CachingSupplier.of(Object::new, CachingSupplierStrategy.REENTRANT_LOCK));
+        assertInstanceOf(DoubleCheckedLockingCachingSupplier.class, CachingSupplier.of(Object::new));
+    }
+
+    @DisplayName("Should close the instance When the AtomicSafeInitializerCachingSupplier is closed")
+    @Test
+    public void shouldCloseTheInstanceWhenTheAtomicSafeInitializerCachingSupplierIsClosed() {
+        final AtomicInteger loads = new AtomicInteger();
+        final Set<Object> closed = ConcurrentHashMap.newKeySet();
+        final Supplier<Object> delegate = () -> {
+            loads.incrementAndGet();
+            return new Object();
+        };
+        final AtomicSafeInitializerCachingSupplier<Object> supplier = new AtomicSafeInitializerCachingSupplier<>(delegate, closed::add);
+        supplier.close(); // never initialized, nothing to close
+        assertEquals(0, loads.get());
+        assertTrue(closed.isEmpty());
+
+        final AtomicSafeInitializerCachingSupplier<Object> initialized = new AtomicSafeInitializerCachingSupplier<>(delegate, closed::add);
+        final Object value = initialized.get();
+        initialized.close();
+        assertEquals(Set.of(value), closed);
+    }
+
+    @DisplayName("Should parse the default strategy When the system property is set")
+    @Test
+    public void shouldParseTheDefaultStrategyWhenTheSystemPropertyIsSet() {
+        assertEquals(CachingSupplierStrategy.DOUBLE_CHECKED_LOCKING, CachingSupplierStrategy.fromProperty(null));
+        assertEquals(CachingSupplierStrategy.REENTRANT_LOCK, CachingSupplierStrategy.fromProperty("reentrant-lock"));
+        assertThrows(IllegalArgumentException.class, () -> CachingSupplierStrategy.fromProperty("SPIN_LOCK"));
+    }
+
+    @DisplayName("Should fail only the lookup When the system property names no strategy")
+    @Test
+    public void shouldFailOnlyTheLookupWhenTheSystemPropertyNamesNoStrategy() {
+        final String previous = System.getProperty(CachingSupplierStrategy.PROPERTY);
+        System.setProperty(CachingSupplierStrategy.PROPERTY, "SPIN_LOCK");
+        try {
+            final IllegalArgumentException exception =
+                    assertThrows(IllegalArgumentException.class, CachingSupplierStrategy::defaultStrategy);
+            assertTrue(exception.getMessage().contains(CachingSupplierStrategy.PROPERTY));
+            assertInstanceOf(ReentrantLockCachingSupplier.class, CachingSupplier.of(Object::new, CachingSupplierStrategy.REENTRANT_LOCK));
+        } finally {
+            if (previous == null) {
+                System.clearProperty(CachingSupplierStrategy.PROPERTY);
+            } else {
+                System.setProperty(CachingSupplierStrategy.PROPERTY, previous);
+            }
+        }
+    }
 
     private void cachingSupplierTest(
             final Function<Supplier<Object>, CachingSupplier<Object>> cachingSupplierFactory
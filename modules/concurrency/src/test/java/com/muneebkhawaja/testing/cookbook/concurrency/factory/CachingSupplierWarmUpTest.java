@@ -0,0 +1,128 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingSupplierWarmUpTest {
+    private static final AtomicInteger CONFIG_LOADS = new AtomicInteger();
+    private static final AtomicInteger CLIENT_LOADS = new AtomicInteger();
+    private static final long TIMEOUT_MILLIS = 30_000;
+
+    @DisplayName("Should initialize every CachingSupplier bean once When the application context starts")
+    @Test
+    public void shouldInitializeEveryCachingSupplierBeanOnceWhenTheApplicationContextStarts() {
+        CONFIG_LOADS.set(0);
+        CLIENT_LOADS.set(0);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(WarmUpConfiguration.class)) {
+            assertEquals(1, CONFIG_LOADS.get());
+            assertEquals(1, CLIENT_LOADS.get());
+
+            final List<CachingSupplierWarmUp.Result> results = context.getBean(CachingSupplierWarmUp.class).getResults();
+            assertEquals(3, results.size());
+            assertEquals(2, results.stream().filter(CachingSupplierWarmUp.Result::succeeded).count());
+            assertFalse(results.stream().filter(result -> result.name().equals("unavailable")).findFirst().orElseThrow().succeeded());
+        }
+    }
+
+    @DisplayName("Should initialize at most parallelism suppliers at once When warming up")
+    @Test
+    public void shouldInitializeAtMostParallelismSuppliersAtOnceWhenWarmingUp() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maximumRunning = new AtomicInteger();
+        final Map<String, Supplier<?>> suppliers = new LinkedHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            suppliers.put("supplier-" + i, CachingSupplier.of(() -> {
+                maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (final InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return new Object();
+            }));
+        }
+        final List<CachingSupplierWarmUp.Result> results = new CachingSupplierWarmUp(new DefaultListableBeanFactory(), 2, TIMEOUT_MILLIS).warmUp(suppliers);
+        assertEquals(8, results.size());
+        assertTrue(maximumRunning.get() <= 2, "at most 2 at once but saw " + maximumRunning.get());
+    }
+
+    @DisplayName("Should report the suppliers that did not finish as failed When the timeout elapses")
+    @Test
+    public void shouldReportTheSuppliersThatDidNotFinishAsFailedWhenTheTimeoutElapses() {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Map<String, Supplier<?>> suppliers = new LinkedHashMap<>();
+        suppliers.put("fast", CachingSupplier.of(Object::new));
+        suppliers.put("stuck", CachingSupplier.of(() -> {
+            try {
+                release.await();
+            } catch (final InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return new Object();
+        }));
+        suppliers.put("queued", CachingSupplier.of(Object::new));
+        try {
+            final long start = System.nanoTime();
+            final List<CachingSupplierWarmUp.Result> results =
+                    new CachingSupplierWarmUp(new DefaultListableBeanFactory(), 1, 200).warmUp(suppliers);
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+            assertEquals(3, results.size());
+            final Map<String, Boolean> succeeded = new LinkedHashMap<>();
+            results.forEach(result -> succeeded.put(result.name(), result.succeeded()));
+            assertEquals(Map.of("fast", true, "stuck", false, "queued", false), succeeded);
+            final CachingSupplierWarmUp.Result stuck = results.stream()
+                    .filter(result -> result.name().equals("stuck")).findFirst().orElseThrow();
+            assertInstanceOf(TimeoutException.class, stuck.failure().getCause());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Configuration
+    @Import(CachingSupplierWarmUp.class)
+    static class WarmUpConfiguration {
+        @Bean
+        CachingSupplier<String> config() {
+            return CachingSupplier.of(() -> {
+                CONFIG_LOADS.incrementAndGet();
+                return "config";
+            });
+        }
+
+        @Bean
+        CachingSupplier<String> client(@Qualifier("config") final CachingSupplier<String> config) {
+            return CachingSupplier.of(() -> {
+                CLIENT_LOADS.incrementAndGet();
+                return "client(" + config.get() + ")"; // depends on another supplier
+            });
+        }
+
+        @Bean
+        CachingSupplier<String> unavailable() {
+            return CachingSupplier.of(() -> {
+                throw new IllegalStateException("not reachable yet");
+            });
+        }
+    }
+}
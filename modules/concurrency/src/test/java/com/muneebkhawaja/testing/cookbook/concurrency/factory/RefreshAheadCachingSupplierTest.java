@@ -0,0 +1,163 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import com.muneebkhawaja.testing.cookbook.concurrency.support.MutableClock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.pastalab.fray.junit.junit5.FrayTestExtension;
+import org.pastalab.fray.junit.junit5.annotations.ConcurrencyTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(FrayTestExtension.class)
+class RefreshAheadCachingSupplierTest {
+    private static final Duration TIME_TO_LIVE = Duration.ofSeconds(60);
+    private static final Duration REFRESH_AHEAD = Duration.ofSeconds(10);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final Queue<Runnable> refreshes = new ArrayDeque<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<Integer> delegate = loads::incrementAndGet;
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should load only once When the first value is requested by multiple threads")
+    @Test
+    public void shouldLoadOnlyOnceWhenTheFirstValueIsRequestedByMultipleThreads() throws InterruptedException {
+        final RefreshAheadCachingSupplier<Object> supplier = new RefreshAheadCachingSupplier<>(() -> {
+            loads.incrementAndGet();
+            return new Object();
+        }, TIME_TO_LIVE, REFRESH_AHEAD);
+        final Set<Object> values = ConcurrentHashMap.newKeySet();
+        ConcurrentTestUtils.runConcurrently(() -> values.add(supplier.get()));
+        assertEquals(1, loads.get());
+        assertEquals(1, values.size());
+    }
+
+    @DisplayName("Should cache the value When it has not reached the refresh-ahead point")
+    @Test
+    public void shouldCacheTheValueWhenItHasNotReachedTheRefreshAheadPoint() {
+        final RefreshAheadCachingSupplier<Integer> supplier = supplier(delegate);
+        assertEquals(1, supplier.get());
+        clock.advance(Duration.ofSeconds(49));
+        assertEquals(1, supplier.get());
+        assertEquals(1, loads.get());
+        assertEquals(0, refreshes.size());
+    }
+
+    @DisplayName("Should serve the stale value and refresh once in the background When the refresh-ahead point is reached")
+    @Test
+    public void shouldServeTheStaleValueAndRefreshOnceInTheBackgroundWhenTheRefreshAheadPointIsReached() {
+        final RefreshAheadCachingSupplier<Integer> supplier = supplier(delegate);
+        supplier.get();
+        clock.advance(Duration.ofSeconds(50));
+        assertEquals(1, supplier.get());
+        assertEquals(1, supplier.get());
+        assertEquals(1, refreshes.size()); // only the first caller schedules a refresh
+
+        refreshes.remove().run();
+        assertEquals(2, supplier.get());
+        assertEquals(2, loads.get());
+    }
+
+    @DisplayName("Should reload on the caller's thread When the value has expired")
+    @Test
+    public void shouldReloadOnTheCallersThreadWhenTheValueHasExpired() {
+        final RefreshAheadCachingSupplier<Integer> supplier = supplier(delegate);
+        supplier.get();
+        clock.advance(TIME_TO_LIVE);
+        assertEquals(2, supplier.get());
+        assertEquals(0, refreshes.size());
+    }
+
+    @DisplayName("Should keep the current value When a background refresh fails")
+    @Test
+    public void shouldKeepTheCurrentValueWhenABackgroundRefreshFails() {
+        final RefreshAheadCachingSupplier<Integer> supplier = supplier(() -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IllegalStateException("vault unavailable");
+            }
+            return 1;
+        });
+        supplier.get();
+        clock.advance(Duration.ofSeconds(55));
+        supplier.get();
+        refreshes.remove().run();
+        assertEquals(1, supplier.get());
+
+        clock.advance(Duration.ofMillis(2_500)); // the retry waits for half the remaining 5 seconds
+        supplier.get();
+        assertEquals(1, refreshes.size());
+        clock.advance(Duration.ofMillis(2_500));
+        assertThrows(IllegalStateException.class, supplier::get);
+    }
+
+    @DisplayName("Should back off When a background refresh fails")
+    @Test
+    public void shouldBackOffWhenABackgroundRefreshFails() {
+        final RefreshAheadCachingSupplier<Integer> supplier = supplier(() -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IllegalStateException("vault unavailable");
+            }
+            return 1;
+        });
+        supplier.get();
+        clock.advance(Duration.ofSeconds(50));
+        supplier.get();
+        refreshes.remove().run();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, supplier.get());
+        }
+        assertEquals(0, refreshes.size());
+        assertEquals(2, loads.get());
+
+        clock.advance(Duration.ofSeconds(5));
+        supplier.get();
+        assertEquals(1, refreshes.size());
+    }
+
+    @DisplayName("Should keep serving and schedule again When the refresh executor throws")
+    @Test
+    public void shouldKeepServingAndScheduleAgainWhenTheRefreshExecutorThrows() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final RefreshAheadCachingSupplier<Integer> supplier = new RefreshAheadCachingSupplier<>(
+                delegate, TIME_TO_LIVE, REFRESH_AHEAD, clock, task -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("executor shut down");
+            }
+            refreshes.add(task);
+        });
+        supplier.get();
+        clock.advance(Duration.ofSeconds(50));
+        assertEquals(1, supplier.get());
+        assertEquals(0, refreshes.size());
+
+        assertEquals(1, supplier.get()); // the failed attempt did not leave a refresh marked as running
+        refreshes.remove().run();
+        assertEquals(2, supplier.get());
+    }
+
+    @DisplayName("Should reject refreshAhead When it is not shorter than the time to live")
+    @Test
+    public void shouldRejectRefreshAheadWhenItIsNotShorterThanTheTimeToLive() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RefreshAheadCachingSupplier<>(delegate, TIME_TO_LIVE, TIME_TO_LIVE));
+    }
+
+    private RefreshAheadCachingSupplier<Integer> supplier(final Supplier<Integer> delegate) {
+        return new RefreshAheadCachingSupplier<>(delegate, TIME_TO_LIVE, REFRESH_AHEAD, clock, refreshes::add);
+    }
+}
@@ -0,0 +1,105 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.pastalab.fray.junit.junit5.FrayTestExtension;
+import org.pastalab.fray.junit.junit5.annotations.ConcurrencyTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(FrayTestExtension.class)
+class ResettableCachingSupplierTest {
+    private static final int THREAD_COUNT = 2;
+
+    private final List<Resource> created = new CopyOnWriteArrayList<>();
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should never close a leased instance When leases and invalidations race")
+    @Test
+    public void shouldNeverCloseALeasedInstanceWhenLeasesAndInvalidationsRace() throws InterruptedException {
+        final ResettableCachingSupplier<Resource> supplier = new ResettableCachingSupplier<>(this::open, Resource::close);
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> {
+            try (ResettableCachingSupplier.Lease<Resource> lease = supplier.acquire()) {
+                assertFalse(lease.get().isClosed());
+                supplier.invalidate();
+                assertFalse(lease.get().isClosed());
+            }
+        });
+        supplier.close();
+        created.forEach(resource -> assertEquals(1, resource.closeCount()));
+    }
+
+    @DisplayName("Should close the instance and initialize a new one When the supplier is invalidated")
+    @Test
+    public void shouldCloseTheInstanceAndInitializeANewOneWhenTheSupplierIsInvalidated() {
+        final ResettableCachingSupplier<Resource> supplier = new ResettableCachingSupplier<>(this::open, Resource::close);
+        final Resource first = supplier.get();
+        assertSame(first, supplier.get());
+
+        supplier.invalidate();
+        assertTrue(first.isClosed());
+        final Resource second = supplier.get();
+        assertNotSame(first, second);
+        assertFalse(second.isClosed());
+    }
+
+    @DisplayName("Should keep the old instance open until its lease is released When the supplier is invalidated")
+    @Test
+    public void shouldKeepTheOldInstanceOpenUntilItsLeaseIsReleasedWhenTheSupplierIsInvalidated() {
+        final ResettableCachingSupplier<Resource> supplier = new ResettableCachingSupplier<>(this::open, Resource::close);
+        final ResettableCachingSupplier.Lease<Resource> lease = supplier.acquire();
+        supplier.invalidate();
+        assertFalse(lease.get().isClosed());
+        assertNotSame(lease.get(), supplier.get());
+
+        lease.close();
+        lease.close();
+        assertEquals(1, lease.get().closeCount());
+    }
+
+    @DisplayName("Should reject access When the supplier is closed")
+    @Test
+    public void shouldRejectAccessWhenTheSupplierIsClosed() {
+        final ResettableCachingSupplier<Resource> supplier = new ResettableCachingSupplier<>(this::open, Resource::close);
+        final Resource resource = supplier.get();
+        supplier.close();
+        assertTrue(resource.isClosed());
+        assertThrows(IllegalStateException.class, supplier::get);
+        assertThrows(IllegalStateException.class, supplier::acquire);
+    }
+
+    private Resource open() {
+        final Resource resource = new Resource();
+        created.add(resource);
+        return resource;
+    }
+
+    private static final class Resource {
+        private final AtomicInteger closeCount = new AtomicInteger();
+
+        private void close() {
+            closeCount.incrementAndGet();
+        }
+
+        private boolean isClosed() {
+            return closeCount.get() > 0;
+        }
+
+        private int closeCount() {
+            return closeCount.get();
+        }
+    }
+}
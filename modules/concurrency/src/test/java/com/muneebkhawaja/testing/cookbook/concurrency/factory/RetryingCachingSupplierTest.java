@@ -0,0 +1,94 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.factory;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import com.muneebkhawaja.testing.cookbook.concurrency.support.MutableClock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.pastalab.fray.junit.junit5.FrayTestExtension;
+import org.pastalab.fray.junit.junit5.annotations.ConcurrencyTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(FrayTestExtension.class)
+class RetryingCachingSupplierTest {
+    private static final int THREAD_COUNT = 2;
+    private static final Duration INITIAL_BACKOFF = Duration.ofMillis(100);
+    private static final Duration MAXIMUM_BACKOFF = Duration.ofMillis(150);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should call the delegate only once When concurrent callers hit a failing delegate")
+    @Test
+    public void shouldCallTheDelegateOnlyOnceWhenConcurrentCallersHitAFailingDelegate() throws InterruptedException {
+        final RetryingCachingSupplier<Object> supplier = supplier(failingUntilAttempt(Integer.MAX_VALUE));
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> assertThrows(RuntimeException.class, supplier::get));
+        assertEquals(1, calls.get());
+        assertEquals(1, supplier.getFailures());
+    }
+
+    @DisplayName("Should fail fast with the cached failure When the backoff window is open")
+    @Test
+    public void shouldFailFastWithTheCachedFailureWhenTheBackoffWindowIsOpen() {
+        final RetryingCachingSupplier<Object> supplier = supplier(failingUntilAttempt(Integer.MAX_VALUE));
+        final IllegalStateException original = assertThrows(IllegalStateException.class, supplier::get);
+        clock.advance(Duration.ofMillis(49)); // jittered window is 50 to 100 ms
+        final IllegalStateException cached = assertThrows(IllegalStateException.class, supplier::get);
+        assertSame(original, cached.getCause());
+        assertEquals(1, calls.get());
+    }
+
+    @DisplayName("Should back off exponentially up to the maximum When attempts keep failing")
+    @Test
+    public void shouldBackOffExponentiallyUpToTheMaximumWhenAttemptsKeepFailing() {
+        final RetryingCachingSupplier<Object> supplier = supplier(failingUntilAttempt(Integer.MAX_VALUE));
+        assertThrows(IllegalStateException.class, supplier::get);
+        clock.advance(INITIAL_BACKOFF);
+        assertThrows(IllegalStateException.class, supplier::get);
+        assertEquals(2, calls.get());
+
+        clock.advance(Duration.ofMillis(74)); // second window is capped at 150 ms, so at least 75 ms
+        assertThrows(IllegalStateException.class, supplier::get);
+        assertEquals(2, calls.get());
+        clock.advance(Duration.ofMillis(76));
+        assertThrows(IllegalStateException.class, supplier::get);
+        assertEquals(3, calls.get());
+    }
+
+    @DisplayName("Should cache the value and record metrics When an attempt after the backoff window succeeds")
+    @Test
+    public void shouldCacheTheValueAndRecordMetricsWhenAnAttemptAfterTheBackoffWindowSucceeds() {
+        final RetryingCachingSupplier<Object> supplier = supplier(failingUntilAttempt(2));
+        assertThrows(IllegalStateException.class, supplier::get);
+        clock.advance(INITIAL_BACKOFF);
+        final Object value = supplier.get();
+        assertSame(value, supplier.get());
+        assertEquals(2, supplier.getAttempts());
+        assertEquals(1, supplier.getFailures());
+        assertEquals(2, supplier.getInitLatencies().count());
+    }
+
+    private RetryingCachingSupplier<Object> supplier(final Supplier<Object> delegate) {
+        return new RetryingCachingSupplier<>(delegate, INITIAL_BACKOFF, MAXIMUM_BACKOFF, clock);
+    }
+
+    private Supplier<Object> failingUntilAttempt(final int successfulAttempt) {
+        return () -> {
+            if (calls.incrementAndGet() < successfulAttempt) {
+                throw new IllegalStateException("database not ready");
+            }
+            return new Object();
+        };
+    }
+}
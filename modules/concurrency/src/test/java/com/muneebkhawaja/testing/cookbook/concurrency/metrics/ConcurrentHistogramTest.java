@@ -0,0 +1,81 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.metrics;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.ConcurrentTestUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.pastalab.fray.junit.junit5.FrayTestExtension;
+import org.pastalab.fray.junit.junit5.annotations.ConcurrencyTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(FrayTestExtension.class)
+class ConcurrentHistogramTest {
+    private static final int THREAD_COUNT = 2;
+
+    @ConcurrencyTest(
+            iterations = 1000
+    )
+    @DisplayName("Should count every value When values are recorded concurrently")
+    @Test
+    public void shouldCountEveryValueWhenValuesAreRecordedConcurrently() throws InterruptedException {
+        final ConcurrentHistogram histogram = new ConcurrentHistogram();
+        ConcurrentTestUtils.runConcurrently(THREAD_COUNT, () -> histogram.record(100));
+        assertEquals(THREAD_COUNT, histogram.count());
+        assertEquals(100, histogram.max());
+    }
+
+    @DisplayName("Should report percentiles within the bucket precision When values are recorded")
+    @Test
+    public void shouldReportPercentilesWithinTheBucketPrecisionWhenValuesAreRecorded() {
+        final ConcurrentHistogram histogram = new ConcurrentHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(10_000, histogram.count());
+        assertEquals(5_000.5, histogram.mean());
+        assertEquals(10_000, histogram.valueAtPercentile(100));
+        assertWithinPrecision(5_000, histogram.valueAtPercentile(50));
+        assertWithinPrecision(9_900, histogram.valueAtPercentile(99));
+        assertEquals(1, histogram.valueAtPercentile(0));
+    }
+
+    @DisplayName("Should hold the values of both histograms When one is added to the other")
+    @Test
+    public void shouldHoldTheValuesOfBothHistogramsWhenOneIsAddedToTheOther() {
+        final ConcurrentHistogram merged = new ConcurrentHistogram();
+        final ConcurrentHistogram other = new ConcurrentHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            (value % 2 == 0 ? merged : other).record(value);
+        }
+        merged.add(other);
+        assertEquals(10_000, merged.count());
+        assertEquals(5_000.5, merged.mean());
+        assertEquals(10_000, merged.max());
+        assertWithinPrecision(5_000, merged.valueAtPercentile(50));
+        assertEquals(5_000, other.count());
+    }
+
+    @DisplayName("Should map every value into a bucket whose upper bound covers it")
+    @ParameterizedTest(name = "value={0}")
+    @ValueSource(longs = {0, 1, 15, 16, 17, 31, 32, 1_000, 123_456_789, Long.MAX_VALUE})
+    void shouldMapEveryValueIntoABucketWhoseUpperBoundCoversIt(final long value) {
+        final long upperBound = ConcurrentHistogram.highestValueIn(ConcurrentHistogram.bucketOf(value));
+        assertTrue(upperBound >= value);
+        assertTrue(upperBound - value <= value / 16);
+    }
+
+    @DisplayName("Should reject a negative value When it is recorded")
+    @Test
+    public void shouldRejectANegativeValueWhenItIsRecorded() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentHistogram().record(-1));
+    }
+
+    private static void assertWithinPrecision(final long expected, final long actual) {
+        assertTrue(actual >= expected && actual - expected <= expected / 16, () -> actual + " is not within 1/16 of " + expected);
+    }
+}
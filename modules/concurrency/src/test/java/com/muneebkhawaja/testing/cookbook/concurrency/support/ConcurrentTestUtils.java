@@ -1,9 +1,11 @@
 package com.muneebkhawaja.testing.cookbook.concurrency.support;
 
+import com.muneebkhawaja.testing.cookbook.concurrency.metrics.ConcurrentHistogram;
 import net.jcip.annotations.ThreadSafe;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -12,13 +14,25 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 /// Concurrency test helper for performing an action concurrently.
-/// The action runs once per thread, so it executes threadCount times in total.
+/// `runConcurrently` runs the action once per thread, so it executes threadCount times in total;
+/// `stress` repeats it on every thread and measures throughput and latency.
 ///
 /// ## Example
 /// ```java
 /// ConcurrentTestUtils.runConcurrently(2, counter::incrementHits);
 /// ```
 ///
+/// ## Stress mode
+/// ```java
+/// final StressResult result = ConcurrentTestUtils.stress(4, Duration.ofSeconds(1), counter::incrementHits);
+/// assertTrue(result.operationsPerSecond() > 1_000_000);
+/// ```
+///
+/// ## Virtual threads
+/// ```java
+/// ConcurrentTestUtils.runConcurrentlyOnVirtualThreads(100_000, counter::incrementHits);
+/// ```
+///
 /// ## Custom executor
 /// ```java
 /// try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
@@ -63,6 +77,25 @@ public final class ConcurrentTestUtils {
         }
     }
 
+    /// Runs the provided action concurrently as `taskCount` virtual threads, one per task, with the
+    /// same ready/start/done coordination: every task is started and parked on the start signal
+    /// before any of them runs the action. Unlike the fixed thread pool this scales to 10k-100k
+    /// tasks, to reproduce contention under virtual-thread-per-request serving.
+    ///
+    /// @param taskCount number of virtual threads to start; must be at least 1
+    /// @param action    shared action to run concurrently
+    /// @throws InterruptedException if the coordinating thread is interrupted
+    /// @throws AssertionError       if any concurrent task fails
+    public static void runConcurrentlyOnVirtualThreads(
+            final int taskCount,
+            final Runnable action
+    ) throws InterruptedException {
+        LOGGER.trace("Starting concurrent execution on '{}' virtual threads.", taskCount);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            runConcurrently(executor, taskCount, action);
+        }
+    }
+
     /// Runs the provided action concurrently across the requested number of threads.
     /// The action runs once per thread.
     ///
@@ -77,12 +110,97 @@ public final class ConcurrentTestUtils {
             final ExecutorService executor,
             final int threadCount,
             final Runnable action
+    ) throws InterruptedException {
+        coordinate(executor, threadCount, action);
+    }
+
+    /// Runs the provided action repeatedly on a fixed thread pool, `iterationsPerThread` times per
+    /// thread, timing every call.
+    ///
+    /// @param threadCount         number of threads to start; must be at least 1
+    /// @param iterationsPerThread number of calls per thread; must be at least 1
+    /// @param action              shared action to run concurrently
+    /// @return throughput and per-call latency of the run
+    /// @throws InterruptedException if the coordinating thread is interrupted
+    /// @throws AssertionError       if any call fails; a thread stops at its first failure
+    public static StressResult stress(
+            final int threadCount,
+            final int iterationsPerThread,
+            final Runnable action
+    ) throws InterruptedException {
+        if (iterationsPerThread < 1) {
+            throw new IllegalArgumentException("Iterations per thread must be at least 1.");
+        }
+        return stress(threadCount, action, (iterations, _) -> iterations < iterationsPerThread);
+    }
+
+    /// Runs the provided action repeatedly on a fixed thread pool until `duration` has passed,
+    /// timing every call. Every thread completes its call in progress when time is up.
+    ///
+    /// @param threadCount number of threads to start; must be at least 1
+    /// @param duration    how long each thread keeps calling the action; must be positive
+    /// @param action      shared action to run concurrently
+    /// @return throughput and per-call latency of the run
+    /// @throws InterruptedException if the coordinating thread is interrupted
+    /// @throws AssertionError       if any call fails; a thread stops at its first failure
+    public static StressResult stress(
+            final int threadCount,
+            final Duration duration,
+            final Runnable action
+    ) throws InterruptedException {
+        Objects.requireNonNull(duration, "Duration must not be null.");
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive.");
+        }
+        final long durationNanos = duration.toNanos();
+        return stress(threadCount, action, (_, elapsedNanos) -> elapsedNanos < durationNanos);
+    }
+
+    private static StressResult stress(
+            final int threadCount,
+            final Runnable action,
+            final ContinueCondition condition
+    ) throws InterruptedException {
+        Objects.requireNonNull(action, "Action must not be null.");
+        // One histogram per thread, merged after the run, so recording never contends across threads.
+        final Queue<ConcurrentHistogram> perThreadLatencies = new ConcurrentLinkedQueue<>();
+        LOGGER.trace("Starting stress run with fixed thread pool of size '{}' threads.", threadCount);
+        final long elapsedNanos;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threadCount)) {
+            elapsedNanos = coordinate(executor, threadCount, () -> {
+                final ConcurrentHistogram latencies = new ConcurrentHistogram();
+                perThreadLatencies.add(latencies);
+                final long start = System.nanoTime();
+                long iterations = 0;
+                long elapsed = 0;
+                while (condition.shouldContinue(iterations, elapsed)) {
+                    final long before = System.nanoTime();
+                    action.run();
+                    final long after = System.nanoTime();
+                    latencies.record(after - before);
+                    elapsed = after - start;
+                    iterations++;
+                }
+            });
+        }
+        final ConcurrentHistogram latencies = new ConcurrentHistogram();
+        perThreadLatencies.forEach(latencies::add);
+        return new StressResult(threadCount, latencies.count(), Duration.ofNanos(elapsedNanos), latencies);
+    }
+
+    /// Starts `threadCount` copies of `task` together and waits for all of them.
+    ///
+    /// @return nanoseconds between the start signal and the last task finishing
+    private static long coordinate(
+            final ExecutorService executor,
+            final int threadCount,
+            final Runnable task
     ) throws InterruptedException {
         if (threadCount < 1) {
             throw new IllegalArgumentException("Thread count must be at least 1.");
         }
         Objects.requireNonNull(executor, "Executor must not be null.");
-        Objects.requireNonNull(action, "Action must not be null.");
+        Objects.requireNonNull(task, "Action must not be null.");
         final CoordinationLatches latches = new CoordinationLatches(threadCount);
         final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
         for (int i = 0; i < threadCount; i++) {
@@ -93,7 +211,7 @@ public final class ConcurrentTestUtils {
                     LOGGER.trace("Waiting for start signal.");
                     latches.start().await();
                     LOGGER.debug("Concurrent action starting.");
-                    action.run();
+                    task.run();
                 } catch (final InterruptedException interruptedException) {
                     Thread.currentThread().interrupt();
                     LOGGER.warn("Concurrent action interrupted.", interruptedException);
@@ -108,14 +226,22 @@ public final class ConcurrentTestUtils {
             });
         }
         latches.ready().await();
+        final long start = System.nanoTime();
         latches.start().countDown();
         latches.done().await();
+        final long elapsedNanos = System.nanoTime() - start;
 
         if (!failures.isEmpty()) {
             AssertionError error = new AssertionError("Concurrent execution failed.");
             failures.forEach(error::addSuppressed);
             throw error;
         }
+        return elapsedNanos;
+    }
+
+    @FunctionalInterface
+    private interface ContinueCondition {
+        boolean shouldContinue(long iterations, long elapsedNanos);
     }
 
     private record CoordinationLatches(CountDownLatch ready, CountDownLatch start, CountDownLatch done) {
@@ -0,0 +1,51 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.support;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.LockFreeHitCounter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentTestUtilsTest {
+    private static final int THREAD_COUNT = 4;
+
+    @DisplayName("Should run the action once per task When thousands of virtual threads are requested")
+    @Test
+    public void shouldRunTheActionOncePerTaskWhenThousandsOfVirtualThreadsAreRequested() throws InterruptedException {
+        final LockFreeHitCounter counter = new LockFreeHitCounter();
+        ConcurrentTestUtils.runConcurrentlyOnVirtualThreads(10_000, counter::incrementHits);
+        assertEquals(10_000, counter.getLongHits());
+    }
+
+    @DisplayName("Should run and time every iteration When stressing for a number of iterations")
+    @Test
+    public void shouldRunAndTimeEveryIterationWhenStressingForANumberOfIterations() throws InterruptedException {
+        final LockFreeHitCounter counter = new LockFreeHitCounter();
+        final StressResult result = ConcurrentTestUtils.stress(THREAD_COUNT, 1_000, counter::incrementHits);
+        assertEquals(THREAD_COUNT * 1_000, counter.getLongHits());
+        assertEquals(THREAD_COUNT * 1_000, result.operations());
+        assertEquals(result.operations(), result.latencies().count());
+        assertTrue(result.operationsPerSecond() > 0);
+    }
+
+    @DisplayName("Should keep running until the duration has passed When stressing for a duration")
+    @Test
+    public void shouldKeepRunningUntilTheDurationHasPassedWhenStressingForADuration() throws InterruptedException {
+        final LockFreeHitCounter counter = new LockFreeHitCounter();
+        final StressResult result = ConcurrentTestUtils.stress(THREAD_COUNT, Duration.ofMillis(50), counter::incrementHits);
+        assertTrue(result.elapsed().compareTo(Duration.ofMillis(50)) >= 0);
+        assertEquals(counter.getLongHits(), result.operations());
+    }
+
+    @DisplayName("Should report the failure When the stressed action throws")
+    @Test
+    public void shouldReportTheFailureWhenTheStressedActionThrows() {
+        assertThrows(AssertionError.class, () -> ConcurrentTestUtils.stress(THREAD_COUNT, 10, () -> {
+            throw new IllegalStateException("boom");
+        }));
+    }
+}
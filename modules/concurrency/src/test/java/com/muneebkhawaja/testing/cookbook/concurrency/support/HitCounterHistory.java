@@ -0,0 +1,81 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.support;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.counter.HitCounter;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+/// Records every call made through it to a `HitCounter`, with the time it was invoked and the
+/// time it responded, for `LinearizabilityChecker`.
+///
+/// ## Example
+/// ```java
+/// final HitCounterHistory history = new HitCounterHistory(new LockFreeHitCounter());
+/// ConcurrentTestUtils.runConcurrently(2, () -> {
+///     history.incrementHits();
+///     history.resetHits();
+/// });
+/// LinearizabilityChecker.assertLinearizable(history.operations());
+/// ```
+@ThreadSafe
+public final class HitCounterHistory {
+    private final HitCounter counter;
+    private final Queue<Operation> operations;
+
+    public HitCounterHistory(final HitCounter counter) {
+        this.counter = Objects.requireNonNull(counter, "Counter must not be null.");
+        this.operations = new ConcurrentLinkedQueue<>();
+    }
+
+    public long getHits() {
+        return record(Operation.Kind.GET, 0, counter::getLongHits);
+    }
+
+    public long incrementHits() {
+        return record(Operation.Kind.INCREMENT, 1, counter::incrementLongHits);
+    }
+
+    public long addHits(final int delta) {
+        return record(Operation.Kind.ADD, delta, () -> counter.addLongHits(delta));
+    }
+
+    public long resetHits() {
+        return record(Operation.Kind.RESET, 0, counter::resetLongHits);
+    }
+
+    /// @return every completed operation, ordered by invocation time
+    public List<Operation> operations() {
+        final List<Operation> history = new ArrayList<>(operations);
+        history.sort(Comparator.comparingLong(Operation::invokedAt));
+        return List.copyOf(history);
+    }
+
+    private long record(final Operation.Kind kind, final long argument, final LongSupplier call) {
+        final long invokedAt = System.nanoTime();
+        final long result = call.getAsLong();
+        final long respondedAt = System.nanoTime();
+        operations.add(new Operation(Thread.currentThread().threadId(), kind, argument, result, invokedAt, respondedAt));
+        return result;
+    }
+
+    /// One completed call: `kind(argument) -> result`, in progress from `invokedAt` to `respondedAt`.
+    public record Operation(long threadId, Kind kind, long argument, long result, long invokedAt, long respondedAt) {
+        public enum Kind {
+            GET,
+            INCREMENT,
+            ADD,
+            RESET
+        }
+
+        @Override
+        public String toString() {
+            return "thread %d: %s(%d) -> %d [%d, %d]".formatted(threadId, kind, argument, result, invokedAt, respondedAt);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.support;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.HitCounterHistory.Operation;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/// Checks that a concurrent `HitCounter` history is linearizable: that every operation can be
+/// given a single point in time between its invocation and its response such that, in that order,
+/// each result matches a plain sequential counter starting at zero.
+///
+/// Final-count assertions miss bugs that still add up, such as two concurrent `resetHits()` calls
+/// both returning the same hits; this checks every result.
+///
+/// The search follows Wing & Gong, with the memoization of Lowe: repeatedly linearize an operation
+/// that no pending operation responded before, backtracking on a mismatch, and skip any
+/// (linearized set, counter value) pair already explored. It is exponential in the worst case, so
+/// keep histories to a few threads and a handful of operations each.
+///
+/// ## Example
+/// ```java
+/// LinearizabilityChecker.assertLinearizable(history.operations());
+/// ```
+public final class LinearizabilityChecker {
+
+    private LinearizabilityChecker() {
+        throw new AssertionError(LinearizabilityChecker.class + " is a static utility class and must not be instantiated.");
+    }
+
+    /// @throws AssertionError listing the history if it is not linearizable
+    public static void assertLinearizable(final List<Operation> history) {
+        if (!isLinearizable(history)) {
+            throw new AssertionError("History is not linearizable against a sequential HitCounter:\n"
+                    + history.stream().map(Operation::toString).collect(Collectors.joining("\n")));
+        }
+    }
+
+    public static boolean isLinearizable(final List<Operation> history) {
+        Objects.requireNonNull(history, "History must not be null.");
+        final Operation[] operations = history.toArray(Operation[]::new);
+        return search(operations, new BitSet(operations.length), 0, new HashSet<>());
+    }
+
+    private static boolean search(
+            final Operation[] operations,
+            final BitSet linearized,
+            final long hits,
+            final Set<State> explored
+    ) {
+        if (linearized.cardinality() == operations.length) {
+            return true;
+        }
+        if (!explored.add(new State((BitSet) linearized.clone(), hits))) {
+            return false;
+        }
+        // an operation can go next only if it was invoked before every pending operation responded
+        long earliestResponse = Long.MAX_VALUE;
+        for (int i = linearized.nextClearBit(0); i < operations.length; i = linearized.nextClearBit(i + 1)) {
+            earliestResponse = Math.min(earliestResponse, operations[i].respondedAt());
+        }
+        for (int i = linearized.nextClearBit(0); i < operations.length; i = linearized.nextClearBit(i + 1)) {
+            if (operations[i].invokedAt() > earliestResponse) {
+                continue;
+            }
+            final OptionalLong next = apply(operations[i], hits);
+            if (next.isPresent()) {
+                linearized.set(i);
+                if (search(operations, linearized, next.getAsLong(), explored)) {
+                    return true;
+                }
+                linearized.clear(i);
+            }
+        }
+        return false;
+    }
+
+    /// Applies `operation` to the sequential model, a counter holding `hits`.
+    ///
+    /// @return the hits afterwards, or empty if the operation's result does not match the model
+    private static OptionalLong apply(final Operation operation, final long hits) {
+        return switch (operation.kind()) {
+            case GET -> operation.result() == hits ? OptionalLong.of(hits) : OptionalLong.empty();
+            case INCREMENT, ADD -> operation.result() == hits + operation.argument()
+                    ? OptionalLong.of(hits + operation.argument())
+                    : OptionalLong.empty();
+            case RESET -> operation.result() == hits ? OptionalLong.of(0) : OptionalLong.empty();
+        };
+    }
+
+    private record State(BitSet linearized, long hits) {
+    }
+}
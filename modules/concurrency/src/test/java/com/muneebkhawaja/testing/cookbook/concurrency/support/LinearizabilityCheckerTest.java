@@ -0,0 +1,56 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.support;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.support.HitCounterHistory.Operation;
+import com.muneebkhawaja.testing.cookbook.concurrency.support.HitCounterHistory.Operation.Kind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinearizabilityCheckerTest {
+
+    @DisplayName("Should accept the history When overlapping operations can be ordered to match the model")
+    @Test
+    public void shouldAcceptTheHistoryWhenOverlappingOperationsCanBeOrderedToMatchTheModel() {
+        // the increment that responded first observed 2, so it must be linearized second
+        assertTrue(LinearizabilityChecker.isLinearizable(List.of(
+                operation(1, Kind.INCREMENT, 1, 2, 0, 10),
+                operation(2, Kind.INCREMENT, 1, 1, 5, 20),
+                operation(1, Kind.RESET, 0, 2, 30, 40),
+                operation(2, Kind.GET, 0, 0, 45, 50))));
+    }
+
+    @DisplayName("Should reject the history When two concurrent resets return the same hits")
+    @Test
+    public void shouldRejectTheHistoryWhenTwoConcurrentResetsReturnTheSameHits() {
+        final List<Operation> lostReset = List.of(
+                operation(1, Kind.ADD, 3, 3, 0, 10),
+                operation(1, Kind.RESET, 0, 3, 20, 40),
+                operation(2, Kind.RESET, 0, 3, 25, 35));
+        assertFalse(LinearizabilityChecker.isLinearizable(lostReset));
+        assertThrows(AssertionError.class, () -> LinearizabilityChecker.assertLinearizable(lostReset));
+    }
+
+    @DisplayName("Should reject the history When a read observes a value before the write that produced it was invoked")
+    @Test
+    public void shouldRejectTheHistoryWhenAReadObservesAValueBeforeTheWriteThatProducedItWasInvoked() {
+        assertFalse(LinearizabilityChecker.isLinearizable(List.of(
+                operation(1, Kind.GET, 0, 1, 0, 10),
+                operation(2, Kind.INCREMENT, 1, 1, 20, 30))));
+    }
+
+    private static Operation operation(
+            final long threadId,
+            final Kind kind,
+            final long argument,
+            final long result,
+            final long invokedAt,
+            final long respondedAt
+    ) {
+        return new Operation(threadId, kind, argument, result, invokedAt, respondedAt);
+    }
+}
@@ -0,0 +1,56 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.support;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+/// Test [Clock] that only moves when told to.
+///
+/// `Clock.fixed(...)` pins "now" for the lifetime of the object under test; this clock lets a test
+/// advance time underneath an object that captured it at construction. `withZone` returns a view
+/// that shares the same "now", so advancing either moves both.
+///
+/// ## Example
+/// ```java
+/// final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+/// final SlidingWindowHitCounter counter = new SlidingWindowHitCounter(LockFreeHitCounter::new, Duration.ofSeconds(10), 10, clock);
+/// clock.advance(Duration.ofSeconds(5));
+/// ```
+@ThreadSafe
+public final class MutableClock extends Clock {
+    private final AtomicReference<Instant> now;
+    private final ZoneId zone;
+
+    public MutableClock(final Instant now) {
+        this(new AtomicReference<>(now), ZoneOffset.UTC);
+    }
+
+    private MutableClock(final AtomicReference<Instant> now, final ZoneId zone) {
+        this.now = now;
+        this.zone = zone;
+    }
+
+    public void advance(final Duration duration) {
+        now.updateAndGet(instant -> instant.plus(duration));
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public MutableClock withZone(final ZoneId zone) {
+        return zone.equals(this.zone) ? this : new MutableClock(now, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return now.get();
+    }
+}
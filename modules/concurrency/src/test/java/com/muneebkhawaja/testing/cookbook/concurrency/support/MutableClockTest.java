@@ -0,0 +1,29 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MutableClockTest {
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @DisplayName("Should share the same now When viewed in another zone")
+    @Test
+    public void shouldShareTheSameNowWhenViewedInAnotherZone() {
+        final MutableClock clock = new MutableClock(NOW);
+        final Clock paris = clock.withZone(ZoneId.of("Europe/Paris"));
+        assertSame(clock, clock.withZone(ZoneOffset.UTC));
+        assertEquals(ZoneId.of("Europe/Paris"), paris.getZone());
+
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(NOW.plusSeconds(60), paris.instant());
+    }
+}
@@ -0,0 +1,28 @@
+package com.muneebkhawaja.testing.cookbook.concurrency.support;
+
+import com.muneebkhawaja.testing.cookbook.concurrency.metrics.ConcurrentHistogram;
+
+import java.time.Duration;
+
+/// Outcome of a `ConcurrentTestUtils.stress(...)` run.
+///
+/// @param threadCount number of threads that ran the action
+/// @param operations  number of completed calls across all threads
+/// @param elapsed     wall-clock time from the start signal until the last thread finished
+/// @param latencies   duration of every call, in nanoseconds
+public record StressResult(int threadCount, long operations, Duration elapsed, ConcurrentHistogram latencies) {
+
+    /// @return completed calls per second across all threads
+    public double operationsPerSecond() {
+        final long elapsedNanos = Math.max(1, elapsed.toNanos());
+        return operations * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "%d ops on %d threads in %d ms (%.0f ops/s), latency ns p50=%d p99=%d p99.9=%d max=%d".formatted(
+                operations, threadCount, elapsed.toMillis(), operationsPerSecond(),
+                latencies.valueAtPercentile(50), latencies.valueAtPercentile(99),
+                latencies.valueAtPercentile(99.9), latencies.max());
+    }
+}
@@ -0,0 +1,13 @@
+package com.muneebkhawaja.testing.cookbook.web;
+
+/// HTTP status codes reported per failed item of a batch request, kept here so `EventService` does not
+/// depend on the web layer.
+final class BatchItemStatus {
+    static final int BAD_REQUEST = 400;
+    static final int NOT_FOUND = 404;
+    static final int PRECONDITION_FAILED = 412;
+
+    private BatchItemStatus() {
+        throw new AssertionError(BatchItemStatus.class + " is a static utility class and must not be instantiated.");
+    }
+}
@@ -0,0 +1,44 @@
+package com.muneebkhawaja.testing.cookbook.web;
+
+import com.muneebkhawaja.web.generated.model.Event;
+
+import java.util.Objects;
+
+///
+/// Entity tags of events: the quoted version, e.g. `"3"`, which is strong because the version
+/// changes with every change to the event.
+///
+final class ETags {
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+        throw new AssertionError(ETags.class + " is a static utility class and must not be instantiated.");
+    }
+
+    static String of(final Event event) {
+        return "\"" + Objects.requireNonNull(event.getVersion(), "version must not be null!") + "\"";
+    }
+
+    /// @param header a comma-separated list of entity tags, or `*`, as in `If-Match` and `If-None-Match`
+    /// @param weak   whether a weak tag, `W/"3"`, may match; `If-Match` compares strongly, `If-None-Match` weakly
+    static boolean matches(final String header, final Event event, final boolean weak) {
+        final String tag = of(event);
+        for (final String candidate : header.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals(ANY)) {
+                return true;
+            }
+            if (trimmed.startsWith(WEAK_PREFIX)) {
+                if (!weak) {
+                    continue;
+                }
+                trimmed = trimmed.substring(WEAK_PREFIX.length());
+            }
+            if (trimmed.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
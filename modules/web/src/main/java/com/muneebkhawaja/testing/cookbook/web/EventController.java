@@ -1,24 +1,69 @@
 package com.muneebkhawaja.testing.cookbook.web;
 
 import com.muneebkhawaja.web.generated.api.EventsApi;
+import com.muneebkhawaja.web.generated.model.BatchCreateEventsRequest;
+import com.muneebkhawaja.web.generated.model.BatchDeleteEventsRequest;
+import com.muneebkhawaja.web.generated.model.BatchEventsResponse;
+import com.muneebkhawaja.web.generated.model.BatchReplaceEventsRequest;
 import com.muneebkhawaja.web.generated.model.Event;
+import com.muneebkhawaja.web.generated.model.EventPage;
 import com.muneebkhawaja.web.generated.model.EventPatchRequest;
 import com.muneebkhawaja.web.generated.model.EventUpsertRequest;
+import com.muneebkhawaja.web.generated.model.Severity;
+import org.jspecify.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 public class EventController implements EventsApi {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int GZIP_BUFFER_SIZE = 8192;
+    private static final String GZIP = "gzip";
+
     private final EventService service;
+    /// Writes events one after another, straight into the response and never flushing per event.
+    private final ObjectWriter exportWriter;
 
     @Autowired
-    public EventController(final EventService service) {
+    public EventController(final EventService service, final JsonMapper jsonMapper) {
         this.service = service;
+        this.exportWriter = jsonMapper.writerFor(Event.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public ResponseEntity<BatchEventsResponse> batchCreateEvents(final BatchCreateEventsRequest request) {
+        return ResponseEntity.ok(service.createAll(request.getEvents()));
+    }
+
+    @Override
+    public ResponseEntity<BatchEventsResponse> batchDeleteEvents(final BatchDeleteEventsRequest request) {
+        return ResponseEntity.ok(service.deleteAll(request.getIds()));
+    }
+
+    @Override
+    public ResponseEntity<BatchEventsResponse> batchReplaceEvents(final BatchReplaceEventsRequest request) {
+        return ResponseEntity.ok(service.replaceAll(request.getEvents()));
     }
 
     @Override
@@ -36,21 +81,88 @@ public class EventController implements EventsApi {
     }
 
     @Override
-    public ResponseEntity<Event> getEvent(final UUID eventId) {
+    public ResponseEntity<StreamingResponseBody> exportEvents(final String acceptEncoding) {
+        final boolean gzip = acceptsGzip(acceptEncoding);
+        final StreamingResponseBody body = output -> {
+            if (!gzip) {
+                writeNdjson(output);
+                return;
+            }
+            final GZIPOutputStream compressed = new GZIPOutputStream(output, GZIP_BUFFER_SIZE);
+            writeNdjson(compressed);
+            compressed.finish(); // the container owns, and closes, the response stream
+        };
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body);
+    }
+
+    @Override
+    public ResponseEntity<Event> getEvent(final UUID eventId, final String ifNoneMatch) {
         return service.get(eventId)
-                .map(ResponseEntity::ok)
+                .map(event -> ifNoneMatch != null && ETags.matches(ifNoneMatch, event, true)
+                        ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(event)).<Event>build()
+                        : ResponseEntity.ok().eTag(ETags.of(event)).body(event))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
     @Override
-    public ResponseEntity<Event> patchEvent(final UUID eventId, final EventPatchRequest request) {
-        final var updated = service.patch(eventId, request);
-        return ResponseEntity.ok(updated);
+    public ResponseEntity<EventPage> listEvents(
+            final Severity severity,
+            final OffsetDateTime from,
+            final OffsetDateTime to,
+            final Integer pageSize,
+            final String pageToken
+    ) {
+        final int size = pageSize == null ? DEFAULT_PAGE_SIZE : pageSize;
+        return ResponseEntity.ok(service.list(severity, from, to, size, pageToken));
+    }
+
+    @Override
+    public ResponseEntity<Event> patchEvent(final UUID eventId, final EventPatchRequest request, final String ifMatch) {
+        final var updated = ifMatch == null
+                ? service.patch(eventId, request)
+                : service.patch(eventId, request, current -> ETags.matches(ifMatch, current, false));
+        return ResponseEntity.ok().eTag(ETags.of(updated)).body(updated);
     }
 
     @Override
-    public ResponseEntity<Event> replaceEvent(final UUID eventId, final EventUpsertRequest request) {
-        final var replaced = service.replace(eventId, request);
-        return ResponseEntity.ok(replaced);
+    public ResponseEntity<Event> replaceEvent(final UUID eventId, final EventUpsertRequest request, final String ifMatch) {
+        final var replaced = ifMatch == null
+                ? service.replace(eventId, request)
+                : service.replace(eventId, request, current -> ETags.matches(ifMatch, current, false));
+        return ResponseEntity.ok().eTag(ETags.of(replaced)).body(replaced);
+    }
+
+    /// Writes one event per line, holding only the event being written, whatever the store size.
+    private void writeNdjson(final OutputStream output) throws IOException {
+        final Iterator<Event> events = service.iterator();
+        if (!events.hasNext()) {
+            return;
+        }
+        try (SequenceWriter writer = exportWriter.writeValues(output)) {
+            while (events.hasNext()) {
+                writer.write(events.next());
+            }
+        }
+        output.write('\n');
+    }
+
+    /// @return whether `Accept-Encoding` lists `gzip` without `q=0`
+    static boolean acceptsGzip(@Nullable final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final String coding : acceptEncoding.split(",")) {
+            final String[] parameters = coding.split(";");
+            if (parameters[0].trim().equalsIgnoreCase(GZIP)) {
+                return parameters.length == 1 || !parameters[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,139 @@
+package com.muneebkhawaja.testing.cookbook.web;
+
+import com.muneebkhawaja.web.generated.model.Event;
+import com.muneebkhawaja.web.generated.model.Severity;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+///
+/// Secondary indexes over the events of `EventService`, so listing is `O(log n + page size)`
+/// instead of a scan: every event is keyed by (timestamp, id) in one time-ordered skip list, and
+/// again in the skip list of its severity.
+///
+/// The indexes are updated while the event's entry in the store is locked, but read without any
+/// lock, so a reader may see a key that no longer matches the stored event; callers must check
+/// `keyOf(stored).equals(key)` and skip stale keys.
+///
+final class EventIndex {
+    /// Events without a timestamp sort before every other event.
+    private static final Instant NO_TIMESTAMP = Instant.MIN;
+    private static final Instant FIRST_TIMESTAMP = NO_TIMESTAMP.plusNanos(1);
+    private static final char CURSOR_SEPARATOR = '|';
+
+    private final NavigableSet<Key> byTime;
+    private final Map<Severity, NavigableSet<Key>> bySeverity;
+
+    EventIndex() {
+        this.byTime = new ConcurrentSkipListSet<>();
+        this.bySeverity = new EnumMap<>(Severity.class);
+        for (final Severity severity : Severity.values()) {
+            bySeverity.put(severity, new ConcurrentSkipListSet<>());
+        }
+    }
+
+    /// Moves an event from the keys of `previous` to the keys of `current`; either may be null.
+    void update(@Nullable final Event previous, @Nullable final Event current) {
+        if (current != null) {
+            final Key key = keyOf(current);
+            byTime.add(key);
+            if (current.getSeverity() != null) {
+                bySeverity.get(current.getSeverity()).add(key);
+            }
+        }
+        if (previous != null) {
+            final Key key = keyOf(previous);
+            final boolean sameKey = current != null && key.equals(keyOf(current));
+            if (!sameKey) {
+                byTime.remove(key);
+            }
+            if (previous.getSeverity() != null && !(sameKey && previous.getSeverity() == current.getSeverity())) {
+                bySeverity.get(previous.getSeverity()).remove(key);
+            }
+        }
+    }
+
+    /// @param from  inclusive lower bound of the timestamp, if any
+    /// @param to    exclusive upper bound of the timestamp, if any
+    /// @param after only keys after this one, e.g. the last key of the previous page
+    /// @return the matching keys in order; a live view, possibly holding stale keys
+    NavigableSet<Key> select(
+            @Nullable final Severity severity,
+            @Nullable final OffsetDateTime from,
+            @Nullable final OffsetDateTime to,
+            @Nullable final Key after
+    ) {
+        NavigableSet<Key> keys = severity == null ? byTime : bySeverity.get(severity);
+        Key lower = null;
+        boolean lowerInclusive = true;
+        if (from != null) {
+            lower = new Key(from.toInstant(), null);
+        } else if (to != null) {
+            lower = new Key(FIRST_TIMESTAMP, null); // a range never matches events without a timestamp
+        }
+        if (after != null && (lower == null || after.compareTo(lower) >= 0)) {
+            lower = after;
+            lowerInclusive = false;
+        }
+        final Key upper = to == null ? null : new Key(to.toInstant(), null);
+        if (lower != null && upper != null && lower.compareTo(upper) > 0) {
+            return Collections.emptyNavigableSet();
+        }
+        if (lower != null) {
+            keys = keys.tailSet(lower, lowerInclusive);
+        }
+        if (upper != null) {
+            keys = keys.headSet(upper, false);
+        }
+        return keys;
+    }
+
+    static Key keyOf(final Event event) {
+        final OffsetDateTime timestamp = event.getTimestamp();
+        return new Key(timestamp == null ? NO_TIMESTAMP : timestamp.toInstant(), event.getId());
+    }
+
+    /// @return an opaque page token pointing after `key`
+    static String encodeCursor(final Key key) {
+        final String cursor = key.timestamp().toString() + CURSOR_SEPARATOR + key.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /// @throws InvalidRequestException if `pageToken` was not produced by `encodeCursor`
+    static Key decodeCursor(final String pageToken) {
+        try {
+            final String cursor = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            final int separator = cursor.lastIndexOf(CURSOR_SEPARATOR);
+            return new Key(Instant.parse(cursor.substring(0, separator)), UUID.fromString(cursor.substring(separator + 1)));
+        } catch (final IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException exception) {
+            throw new InvalidRequestException("Invalid page token: " + pageToken, exception);
+        }
+    }
+
+    /// Position of an event in the indexes; a null id sorts before every id with the same timestamp.
+    record Key(Instant timestamp, @Nullable UUID id) implements Comparable<Key> {
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::timestamp)
+                .thenComparing(Key::id, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        Key {
+            Objects.requireNonNull(timestamp, "timestamp must not be null!");
+        }
+
+        @Override
+        public int compareTo(final Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.muneebkhawaja.testing.cookbook.web;
+
+import com.muneebkhawaja.web.generated.model.Event;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+///
+/// Durable record of every change to the events of `EventService`, so they survive a restart.
+///
+/// `put` and `delete` are called while `EventService` holds the event's lock stripe and before the
+/// change is visible, so the journal sees the changes to one event in the order they were made, and
+/// a change the journal rejects by throwing is never applied. Every such change runs inside
+/// `change`, so a journal that compacts itself can wait until every change it has recorded is also
+/// visible in the store.
+///
+interface EventJournal extends AutoCloseable {
+    /// Keeps nothing: `EventService` is purely in memory.
+    EventJournal NONE = new EventJournal() {
+        @Override
+        public void open(final Consumer<Event> recovered, final Supplier<Iterator<Event>> store) {
+        }
+
+        @Override
+        public <T> T change(final Supplier<T> change) {
+            return change.get();
+        }
+
+        @Override
+        public void put(final Event event) {
+        }
+
+        @Override
+        public void delete(final UUID id) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /// Passes every event recovered from the journal to `recovered`, then starts journaling.
+    ///
+    /// @param store iterates over the current events, e.g. to write a snapshot
+    void open(Consumer<Event> recovered, Supplier<Iterator<Event>> store);
+
+    /// Runs `change`, which records a change with `put` or `delete` and then applies it to the store,
+    /// as one step with respect to compaction: a snapshot of the store never starts between the two.
+    ///
+    /// @return what `change` returned
+    <T> T change(Supplier<T> change);
+
+    /// Records that `event` was created or changed to this state.
+    void put(Event event);
+
+    void delete(UUID id);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,32 @@
+package com.muneebkhawaja.testing.cookbook.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/// Makes `EventService` durable when `events.journal.directory` is set; see `FileEventJournal`.
+///
+/// ```properties
+/// events.journal.directory=/var/lib/events
+/// events.journal.sync-interval=10ms
+/// events.journal.snapshot-interval=5m
+/// ```
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "events.journal", name = "directory")
+class EventJournalConfiguration {
+
+    @Bean
+    EventJournal eventJournal(
+            @Value("${events.journal.directory}") final Path directory,
+            @Value("${events.journal.sync-interval:10ms}") final Duration syncInterval,
+            @Value("${events.journal.snapshot-interval:5m}") final Duration snapshotInterval,
+            final JsonMapper jsonMapper
+    ) {
+        return new FileEventJournal(directory, syncInterval, snapshotInterval, jsonMapper);
+    }
+}
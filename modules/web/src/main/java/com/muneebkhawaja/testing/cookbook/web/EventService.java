@@ -1,65 +1,315 @@
 package com.muneebkhawaja.testing.cookbook.web;
 
+import com.muneebkhawaja.web.generated.model.BatchEventsResponse;
+import com.muneebkhawaja.web.generated.model.BatchItemFailure;
 import com.muneebkhawaja.web.generated.model.Event;
+import com.muneebkhawaja.web.generated.model.EventPage;
 import com.muneebkhawaja.web.generated.model.EventPatchRequest;
 import com.muneebkhawaja.web.generated.model.EventProperties;
 import com.muneebkhawaja.web.generated.model.EventUpsertRequest;
+import com.muneebkhawaja.web.generated.model.Severity;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
+/// Every change to an event holds the event's lock stripe (one of `LOCK_STRIPES` locks, picked by
+/// the id), journals the change and only then applies it to the store and the secondary indexes, so
+/// changes to one event are serialized and the journal and the indexes follow them in order. The
+/// journal's I/O runs under the stripe rather than inside `ConcurrentHashMap.compute`, so it never
+/// blocks the map's bins, and reads never wait for it. Each change runs inside
+/// `EventJournal.change`, so a journal snapshot sees every change the journal has recorded.
+///
+/// Events are kept only in memory unless an `EventJournal` bean is defined, such as the
+/// `FileEventJournal` enabled by `events.journal.directory`; the service then starts from the
+/// events recovered from the journal.
+///
+/// Every event has a version, 1 when created and one more with every change, for optimistic
+/// concurrency: `replace` and `patch` take a precondition on the current event, checked under the
+/// same lock as the change. Events recovered from a journal written before versions existed start
+/// at version 1, so every stored event has one.
 @Service
 public class EventService {
+    public static final int MAXIMUM_PAGE_SIZE = 1000;
+    public static final int MAXIMUM_BATCH_SIZE = 10_000;
+    private static final long FIRST_VERSION = 1;
+    private static final int LOCK_STRIPES = 64;
+
     private final Map<UUID, Event> inMemoryStorage;
+    private final ReentrantLock[] stripes;
+    private final EventIndex index;
+    private final EventJournal journal;
 
     public EventService() {
+        this(EventJournal.NONE);
+    }
+
+    @Autowired
+    EventService(final ObjectProvider<EventJournal> journal) {
+        this(journal.getIfAvailable(() -> EventJournal.NONE));
+    }
+
+    EventService(final EventJournal journal) {
         this.inMemoryStorage = new ConcurrentHashMap<>();
+        this.stripes = new ReentrantLock[LOCK_STRIPES];
+        Arrays.setAll(stripes, _ -> new ReentrantLock());
+        this.index = new EventIndex();
+        this.journal = journal;
+        journal.open(recovered -> {
+            final Event event = recovered.getVersion() == null ? recovered.version(FIRST_VERSION) : recovered;
+            inMemoryStorage.put(event.getId(), event);
+            index.update(null, event);
+        }, this::iterator);
     }
 
     public Event create(final EventUpsertRequest request) {
         final UUID id = UUID.randomUUID();
-        final Event created = toEvent(id, request);
-        inMemoryStorage.put(id, created);
+        final Event created = toEvent(id, request).version(FIRST_VERSION);
+        locked(id, () -> {
+            apply(id, null, created);
+            return created;
+        });
         return created;
     }
 
+    /// Creates every event in one pass. The response holds the stored events themselves, in request
+    /// order, rather than a result object per item.
+    ///
+    /// @throws InvalidRequestException if there are more than `MAXIMUM_BATCH_SIZE` requests
+    public BatchEventsResponse createAll(final List<EventUpsertRequest> requests) {
+        checkBatchSize(requests.size());
+        final List<Event> created = new ArrayList<>(requests.size());
+        for (final EventUpsertRequest request : requests) {
+            created.add(create(request));
+        }
+        return new BatchEventsResponse(created.size(), new ArrayList<>()).events(created);
+    }
+
+    /// Replaces every event in one pass; items are independent, so a missing event fails only its
+    /// own item, with a 404 failure. Only failed items get an entry of their own.
+    ///
+    /// An item's `version`, if present, is a precondition like `If-Match`: checked under the same lock
+    /// as the change, and the item fails with a 412 unless the event is still at that version.
+    ///
+    /// @throws InvalidRequestException if there are more than `MAXIMUM_BATCH_SIZE` events
+    public BatchEventsResponse replaceAll(final List<Event> events) {
+        checkBatchSize(events.size());
+        final List<Event> replaced = new ArrayList<>(events.size());
+        final List<BatchItemFailure> failures = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            final Event event = events.get(i);
+            final UUID id = event.getId();
+            if (id == null) {
+                failures.add(new BatchItemFailure(i, BatchItemStatus.BAD_REQUEST, "id must not be null"));
+                continue;
+            }
+            final Long expectedVersion = event.getVersion();
+            final Event updated;
+            try {
+                updated = locked(id, () -> {
+                    final Event previous = inMemoryStorage.get(id);
+                    if (previous == null) {
+                        return null;
+                    }
+                    if (expectedVersion != null) {
+                        checkPrecondition(previous, current -> expectedVersion.equals(current.getVersion()));
+                    }
+                    final Event next = copy(event).version(nextVersion(previous));
+                    apply(id, previous, next);
+                    return next;
+                });
+            } catch (final PreconditionFailedException exception) {
+                failures.add(new BatchItemFailure(i, BatchItemStatus.PRECONDITION_FAILED, exception.getMessage()));
+                continue;
+            }
+            if (updated == null) {
+                failures.add(new BatchItemFailure(i, BatchItemStatus.NOT_FOUND, "Event not found: " + id));
+            } else {
+                replaced.add(updated);
+            }
+        }
+        return new BatchEventsResponse(replaced.size(), failures).events(replaced);
+    }
+
+    /// Deletes every event in one pass; like `delete`, deleting a missing event succeeds, so the
+    /// response only counts the ids.
+    ///
+    /// @throws InvalidRequestException if there are more than `MAXIMUM_BATCH_SIZE` ids
+    public BatchEventsResponse deleteAll(final List<UUID> ids) {
+        checkBatchSize(ids.size());
+        for (final UUID id : ids) {
+            delete(id);
+        }
+        return new BatchEventsResponse(ids.size(), new ArrayList<>()).events(null);
+    }
+
     public Optional<Event> get(final UUID id) {
         return Optional.ofNullable(inMemoryStorage.get(id));
     }
 
+    /// Iterates over every event, in no particular order, without copying the store: the iterator is
+    /// weakly consistent, so it never throws `ConcurrentModificationException` and may or may not
+    /// see changes made while iterating.
+    public Iterator<Event> iterator() {
+        return Collections.unmodifiableCollection(inMemoryStorage.values()).iterator();
+    }
+
+    /// Lists events ordered by timestamp, then id. Events without a timestamp come first and never
+    /// match a timestamp range.
+    ///
+    /// @param from      inclusive lower bound of the timestamp, if any
+    /// @param to        exclusive upper bound of the timestamp, if any
+    /// @param pageToken the `nextPageToken` of the previous page, if any
+    /// @throws InvalidRequestException if `pageSize` is out of range or `pageToken` is invalid
+    public EventPage list(
+            @Nullable final Severity severity,
+            @Nullable final OffsetDateTime from,
+            @Nullable final OffsetDateTime to,
+            final int pageSize,
+            @Nullable final String pageToken
+    ) {
+        if (pageSize < 1 || pageSize > MAXIMUM_PAGE_SIZE) {
+            throw new InvalidRequestException("pageSize must be between 1 and " + MAXIMUM_PAGE_SIZE + ".");
+        }
+        final EventIndex.Key after = pageToken == null ? null : EventIndex.decodeCursor(pageToken);
+        final List<Event> events = new ArrayList<>(pageSize);
+        EventIndex.Key last = null;
+        boolean hasMore = false;
+        for (final EventIndex.Key key : index.select(severity, from, to, after)) {
+            final Event event = inMemoryStorage.get(key.id());
+            if (event == null || !EventIndex.keyOf(event).equals(key) || (severity != null && severity != event.getSeverity())) {
+                continue; // stale key of an event that was deleted or changed while we read
+            }
+            if (events.size() == pageSize) {
+                hasMore = true;
+                break;
+            }
+            events.add(event);
+            last = key;
+        }
+        return new EventPage(events).nextPageToken(hasMore ? EventIndex.encodeCursor(last) : null);
+    }
+
     public void delete(final UUID id) {
-        inMemoryStorage.remove(id);
+        locked(id, () -> {
+            final Event previous = inMemoryStorage.get(id);
+            if (previous != null) {
+                apply(id, previous, null);
+            }
+            return null;
+        });
     }
 
     public Event replace(final UUID id, final EventUpsertRequest request) {
-        if (!inMemoryStorage.containsKey(id)) {
+        return replace(id, request, _ -> true);
+    }
+
+    /// @param precondition checked against the current event before replacing it
+    /// @throws PreconditionFailedException if the current event does not satisfy `precondition`
+    public Event replace(final UUID id, final EventUpsertRequest request, final Predicate<Event> precondition) {
+        final Event replaced = locked(id, () -> {
+            final Event previous = inMemoryStorage.get(id);
+            if (previous == null) {
+                return null;
+            }
+            checkPrecondition(previous, precondition);
+            final Event updated = toEvent(id, request).version(nextVersion(previous));
+            apply(id, previous, updated);
+            return updated;
+        });
+        if (replaced == null) {
             throw new ResourceNotFoundException("Event not found: " + id);
         }
-        final Event updated = toEvent(id, request);
-        inMemoryStorage.put(id, updated);
-        return updated;
+        return replaced;
     }
 
     public Event patch(final UUID id, final EventPatchRequest request) {
-        final Event current = get(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Event not found: " + id));
-        if (request.getUpdateMask() == null || request.getUpdateMask().isEmpty()) {
-            throw new IllegalArgumentException("updateMask must not be empty");
+        return patch(id, request, _ -> true);
+    }
+
+    /// @param precondition checked against the current event before patching it
+    /// @throws PreconditionFailedException if the current event does not satisfy `precondition`
+    public Event patch(final UUID id, final EventPatchRequest request, final Predicate<Event> precondition) {
+        final Event patched = locked(id, () -> {
+            final Event current = inMemoryStorage.get(id);
+            if (current == null) {
+                return null;
+            }
+            checkPrecondition(current, precondition);
+            if (request.getUpdateMask() == null || request.getUpdateMask().isEmpty()) {
+                throw new InvalidRequestException("updateMask must not be empty");
+            }
+            final EventProperties props = request.getEvent();
+            if (props == null) {
+                throw new InvalidRequestException("event properties must be provided for patch");
+            }
+            final Event updated = copy(current).version(nextVersion(current));
+            for (EventPatchRequest.UpdateMaskEnum field : request.getUpdateMask()) {
+                update(field, updated, props);
+            }
+            apply(id, current, updated);
+            return updated;
+        });
+        if (patched == null) {
+            throw new ResourceNotFoundException("Event not found: " + id);
+        }
+        return patched;
+    }
+
+    /// Runs `change` holding the lock stripe of `id`, inside `EventJournal.change`.
+    private <T> T locked(final UUID id, final Supplier<T> change) {
+        final ReentrantLock stripe = stripes[Math.floorMod(id.hashCode(), LOCK_STRIPES)];
+        stripe.lock();
+        try {
+            return journal.change(change);
+        } finally {
+            stripe.unlock();
         }
-        final EventProperties props = request.getEvent();
-        if (props == null) {
-            throw new IllegalArgumentException("event properties must be provided for patch");
+    }
+
+    /// Journals the change of `id` from `previous` to `updated` (`null` for a deletion), then makes it
+    /// visible. Requires holding the lock stripe of `id`; a change the journal rejects is never applied.
+    private void apply(final UUID id, @Nullable final Event previous, @Nullable final Event updated) {
+        if (updated == null) {
+            journal.delete(id);
+            inMemoryStorage.remove(id);
+        } else {
+            journal.put(updated);
+            inMemoryStorage.put(id, updated);
+        }
+        index.update(previous, updated);
+    }
+
+    private static void checkPrecondition(final Event current, final Predicate<Event> precondition) {
+        if (!precondition.test(current)) {
+            throw new PreconditionFailedException("Event " + current.getId() + " is at version " + current.getVersion());
         }
-        final Event updated = copy(current);
-        for (EventPatchRequest.UpdateMaskEnum field : request.getUpdateMask()) {
-            update(field, updated, props);
+    }
+
+    /// @param previous a stored event, which always has a version
+    private static long nextVersion(final Event previous) {
+        return previous.getVersion() + 1;
+    }
+
+    private static void checkBatchSize(final int size) {
+        if (size > MAXIMUM_BATCH_SIZE) {
+            throw new InvalidRequestException("A batch must hold at most " + MAXIMUM_BATCH_SIZE + " items.");
         }
-        inMemoryStorage.put(id, updated);
-        return updated;
     }
 
     private static Event copy(Event current) {
@@ -78,7 +328,7 @@ public class EventService {
             case SEVERITY -> updated.setSeverity(props.getSeverity());
             case TIMESTAMP -> updated.setTimestamp(props.getTimestamp());
             case DESCRIPTION -> updated.setDescription(props.getDescription());
-            default -> throw new IllegalArgumentException("Unsupported patch field: " + field);
+            default -> throw new InvalidRequestException("Unsupported patch field: " + field);
         }
     }
 
@@ -0,0 +1,503 @@
+package com.muneebkhawaja.testing.cookbook.web;
+
+import com.muneebkhawaja.web.generated.model.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+///
+/// `EventJournal` kept in a directory as a write-ahead log plus periodic snapshots.
+///
+/// Every change is appended to the current log segment, `wal-<sequence>.log`, as a record holding
+/// the whole event after the change (or the id of a deleted event), so replaying a record twice is
+/// harmless. Appends are plain `FileChannel` writes into the page cache; a background thread
+/// forces them to disk every `syncInterval`, so a crash of the machine (not just the process) loses
+/// at most that much. A `syncInterval` of zero forces every append instead.
+///
+/// A failed force is not retried: the kernel may already have dropped the pages it could not
+/// write, so a later force could succeed without them. The journal fails every later change
+/// instead, and the service has to be restarted to recover from what reached the disk.
+///
+/// Every `snapshotInterval` the journal starts a new segment, writes every event of the store to
+/// `snapshot-<sequence>.log`, and deletes the older segments and snapshots. Starting the segment
+/// waits for the changes in flight, which hold the rotation lock shared from their journal record
+/// until the store shows them, so every change of the old segments is in the store before the
+/// snapshot reads it. The store is read while it keeps changing, so the snapshot may already hold
+/// some changes of the new segment; replaying that segment over it still ends in the right state.
+///
+/// A snapshot is written to `snapshot-<sequence>.tmp` and renamed once complete. A snapshot that
+/// fails deletes its temporary file, and opening the journal deletes any a crash left behind.
+///
+/// Recovery loads the latest snapshot and replays the segments from its sequence on. Only the
+/// newest segment can end in a record torn by a crash mid-write, since older ones were forced
+/// before the next one was started: a record cut short or failing its checksum there ends the
+/// segment, which is truncated. The same in a snapshot or an older segment is corruption, and
+/// recovery fails rather than silently drop the changes after it.
+///
+/// ## Record format
+/// `int length, int crc32c, byte type, byte[length - 1] payload`, where the checksum covers the type
+/// and payload, and the payload is the event as JSON for a put or the 16 bytes of the id for a delete.
+///
+final class FileEventJournal implements EventJournal {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileEventJournal.class);
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SUFFIX = ".log";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + 1;
+    private static final int MAXIMUM_RECORD_SIZE = 16 * 1024 * 1024;
+    private static final int SNAPSHOT_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final Duration syncInterval;
+    private final Duration snapshotInterval;
+    private final JsonMapper jsonMapper;
+    private final ReentrantLock lock;
+    /// held shared by every `change` and exclusively while starting a new segment
+    private final ReentrantReadWriteLock rotation;
+    private final ScheduledExecutorService scheduler;
+
+    /// guarded by `lock`
+    private FileChannel segment;
+    /// guarded by `lock`; the sequence of `segment`
+    private long sequence;
+    /// guarded by `lock`; number of records appended so far
+    private long appended;
+    /// guarded by `lock`; number of records known to be on disk
+    private long forced;
+    /// guarded by `lock`; the first force that failed, after which every append fails
+    private IOException failure;
+    /// guarded by `lock`; reused by every append
+    private ByteBuffer buffer;
+    private Supplier<Iterator<Event>> store;
+
+    FileEventJournal(
+            final Path directory,
+            final Duration syncInterval,
+            final Duration snapshotInterval,
+            final JsonMapper jsonMapper
+    ) {
+        this.directory = Objects.requireNonNull(directory, "directory must not be null!");
+        this.syncInterval = Objects.requireNonNull(syncInterval, "syncInterval must not be null!");
+        this.snapshotInterval = Objects.requireNonNull(snapshotInterval, "snapshotInterval must not be null!");
+        this.jsonMapper = Objects.requireNonNull(jsonMapper, "jsonMapper must not be null!");
+        if (syncInterval.isNegative() || !snapshotInterval.isPositive()) {
+            throw new IllegalArgumentException("syncInterval must not be negative and snapshotInterval must be positive.");
+        }
+        this.lock = new ReentrantLock();
+        this.rotation = new ReentrantReadWriteLock();
+        this.scheduler = Executors.newScheduledThreadPool(2, Thread.ofPlatform().name("event-journal-", 0).daemon().factory());
+        this.buffer = ByteBuffer.allocateDirect(4096);
+    }
+
+    @Override
+    public void open(final Consumer<Event> recovered, final Supplier<Iterator<Event>> store) {
+        this.store = Objects.requireNonNull(store, "store must not be null!");
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            deleteTemporaryFiles();
+            final Map<UUID, Event> events = new LinkedHashMap<>();
+            final List<Long> snapshots = sequences(SNAPSHOT_PREFIX);
+            final long first = snapshots.isEmpty() ? 0 : snapshots.getLast();
+            if (!snapshots.isEmpty()) {
+                replay(path(SNAPSHOT_PREFIX, first), events, false);
+            }
+            final List<Long> segments = sequences(SEGMENT_PREFIX).stream()
+                    .filter(segmentSequence -> segmentSequence >= first)
+                    .toList();
+            for (final long segmentSequence : segments) {
+                replay(path(SEGMENT_PREFIX, segmentSequence), events, segmentSequence == segments.getLast());
+            }
+            events.values().forEach(recovered);
+            LOGGER.info("Recovered {} events from {}", events.size(), directory);
+            sequence = (segments.isEmpty() ? first : segments.getLast()) + 1;
+            segment = openSegment(sequence);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("Could not recover the event journal in " + directory, exception);
+        } finally {
+            lock.unlock();
+        }
+        if (syncInterval.isPositive()) {
+            scheduler.scheduleWithFixedDelay(this::sync, syncInterval.toNanos(), syncInterval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, snapshotInterval.toNanos(), snapshotInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public <T> T change(final Supplier<T> change) {
+        rotation.readLock().lock();
+        try {
+            return change.get();
+        } finally {
+            rotation.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(final Event event) {
+        append(PUT, jsonMapper.writeValueAsBytes(event));
+    }
+
+    @Override
+    public void delete(final UUID id) {
+        append(DELETE, ByteBuffer.allocate(2 * Long.BYTES)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array());
+    }
+
+    /// Forces the appends made so far to disk. Runs outside the lock, so appends carry on meanwhile.
+    void sync() {
+        final FileChannel channel;
+        final long target;
+        lock.lock();
+        try {
+            if (forced == appended || failure != null) {
+                return;
+            }
+            channel = segment;
+            target = appended;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            channel.force(false);
+        } catch (final ClosedByInterruptException exception) {
+            fail(exception); // the interrupt closed the segment, so nothing more can be appended
+            return;
+        } catch (final ClosedChannelException ignore) {
+            return; // rotated or closed meanwhile, which forced the segment already
+        } catch (final IOException exception) {
+            fail(exception);
+            return;
+        }
+        lock.lock();
+        try {
+            forced = Math.max(forced, target);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// Writes every event of the store to a new snapshot and deletes the log segments it replaces.
+    void snapshot() throws IOException {
+        final long snapshotSequence;
+        rotation.writeLock().lock(); // waits until every change recorded so far is in the store
+        try {
+            lock.lock();
+            try {
+                snapshotSequence = rotate(); // later changes go to the new segment, replayed over the snapshot
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            rotation.writeLock().unlock();
+        }
+        final Path temporary = directory.resolve(SNAPSHOT_PREFIX + snapshotSequence + TEMPORARY_SUFFIX);
+        try {
+            writeSnapshot(temporary);
+            Files.move(temporary, path(SNAPSHOT_PREFIX, snapshotSequence), StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException | RuntimeException exception) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (final IOException deleteException) {
+                exception.addSuppressed(deleteException);
+            }
+            throw exception;
+        }
+        forceDirectory(); // the snapshot must survive a crash before the files it replaces are gone
+        for (final long older : sequences(SEGMENT_PREFIX)) {
+            if (older < snapshotSequence) {
+                Files.deleteIfExists(path(SEGMENT_PREFIX, older));
+            }
+        }
+        for (final long older : sequences(SNAPSHOT_PREFIX)) {
+            if (older < snapshotSequence) {
+                Files.deleteIfExists(path(SNAPSHOT_PREFIX, older));
+            }
+        }
+    }
+
+    /// Writes every event of the store to `temporary` and forces it to disk.
+    private void writeSnapshot(final Path temporary) throws IOException {
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer snapshotBuffer = ByteBuffer.allocateDirect(SNAPSHOT_BUFFER_SIZE);
+            final Iterator<Event> events = store.get();
+            while (events.hasNext()) {
+                final byte[] payload = jsonMapper.writeValueAsBytes(events.next());
+                if (snapshotBuffer.remaining() < HEADER_SIZE + payload.length) {
+                    writeFully(channel, snapshotBuffer.flip());
+                    snapshotBuffer.clear();
+                    if (snapshotBuffer.remaining() < HEADER_SIZE + payload.length) {
+                        snapshotBuffer = ByteBuffer.allocateDirect(HEADER_SIZE + payload.length);
+                    }
+                }
+                frame(snapshotBuffer, PUT, payload);
+            }
+            writeFully(channel, snapshotBuffer.flip());
+            channel.force(true);
+        }
+    }
+
+    /// @return whether a thread is waiting for the rotation lock, e.g. a snapshot waiting for changes in flight
+    boolean isRotationQueued() {
+        return rotation.hasQueuedThreads();
+    }
+
+    @Override
+    public void close() {
+        // Let a running sync or snapshot finish: interrupting a thread in a FileChannel closes it.
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOGGER.warn("Closing the event journal in {} while a sync or snapshot is still running", directory);
+            }
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            if (segment != null && segment.isOpen()) {
+                if (failure == null) {
+                    segment.force(false);
+                }
+                segment.close();
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("The event journal in " + directory + " lost changes it could not force to disk", failure);
+            }
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("Could not close the event journal in " + directory, exception);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(final byte type, final byte[] payload) {
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw new UncheckedIOException("The event journal in " + directory + " could not force changes to disk; restart to recover", failure);
+            }
+            if (segment == null || !segment.isOpen()) {
+                throw new IllegalStateException("Event journal is not open.");
+            }
+            if (buffer.capacity() < HEADER_SIZE + payload.length) {
+                buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(HEADER_SIZE + payload.length) << 1);
+            }
+            buffer.clear();
+            frame(buffer, type, payload);
+            writeFully(segment, buffer.flip());
+            appended++;
+            if (syncInterval.isZero()) {
+                forceSegment();
+            }
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("Could not append to the event journal in " + directory, exception);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// Requires holding `lock`.
+    ///
+    /// @return the sequence of the new segment
+    private long rotate() throws IOException {
+        if (failure != null) {
+            throw new IOException("The event journal could not force changes to disk", failure);
+        }
+        forceSegment();
+        segment.close();
+        sequence++;
+        segment = openSegment(sequence);
+        return sequence;
+    }
+
+    /// Requires holding `lock`.
+    private void forceSegment() throws IOException {
+        try {
+            segment.force(false);
+            forced = appended;
+        } catch (final IOException exception) {
+            fail(exception);
+            throw exception;
+        }
+    }
+
+    private void fail(final IOException exception) {
+        lock.lock();
+        try {
+            if (failure == null) {
+                failure = exception;
+                LOGGER.error("Could not force the event journal in {} to disk; failing every later change", directory, exception);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// Makes files created, renamed or deleted in `directory` so far survive a crash.
+    private void forceDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (final IOException | RuntimeException exception) {
+            LOGGER.error("Could not snapshot the event journal in {}", directory, exception);
+        }
+    }
+
+    private FileChannel openSegment(final long segmentSequence) throws IOException {
+        final FileChannel channel = FileChannel.open(path(SEGMENT_PREFIX, segmentSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        forceDirectory(); // otherwise a crash could lose the new segment along with its forced appends
+        return channel;
+    }
+
+    /// Applies every intact record of `file` to `events`. A bad record truncates the file there if it
+    /// is the newest segment, and fails recovery otherwise.
+    ///
+    /// @param newestSegment whether `file` is the segment that was being appended to
+    private void replay(final Path file, final Map<UUID, Event> events, final boolean newestSegment) throws IOException {
+        long intact = 0;
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(file));
+             DataInputStream input = new DataInputStream(stream)) {
+            while (true) {
+                final int length;
+                try {
+                    length = input.readInt();
+                } catch (final EOFException endOfFile) {
+                    return;
+                }
+                if (length < 1 || length > MAXIMUM_RECORD_SIZE) {
+                    break;
+                }
+                final int checksum = input.readInt();
+                final byte[] body = input.readNBytes(length);
+                if (body.length < length || checksum != crc(body, 0, length)) {
+                    break;
+                }
+                apply(body, events);
+                intact += HEADER_SIZE - 1 + length;
+            }
+        } catch (final EOFException tornHeader) {
+            // fall through to truncate
+        }
+        if (!newestSegment) {
+            throw new IOException("Corrupt record in " + file + " at byte " + intact
+                    + "; only the newest log segment may end in a torn record");
+        }
+        LOGGER.warn("Truncating {} at byte {} after a torn or corrupt record", file, intact);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(intact);
+            channel.force(true);
+        }
+    }
+
+    private void apply(final byte[] body, final Map<UUID, Event> events) {
+        switch (body[0]) {
+            case PUT -> {
+                final Event event = jsonMapper.readValue(body, 1, body.length - 1, Event.class);
+                events.put(event.getId(), event);
+            }
+            case DELETE -> {
+                final ByteBuffer id = ByteBuffer.wrap(body, 1, 2 * Long.BYTES);
+                events.remove(new UUID(id.getLong(), id.getLong()));
+            }
+            default -> throw new IllegalStateException("Unknown event journal record type: " + body[0]);
+        }
+    }
+
+    private static void frame(final ByteBuffer target, final byte type, final byte[] payload) {
+        final CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(payload);
+        target.putInt(payload.length + 1)
+                .putInt((int) crc.getValue())
+                .put(type)
+                .put(payload);
+    }
+
+    private static int crc(final byte[] bytes, final int offset, final int length) {
+        final CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private Path path(final String prefix, final long fileSequence) {
+        return directory.resolve(prefix + fileSequence + SUFFIX);
+    }
+
+    /// Deletes the snapshots a crash left half written; a failed snapshot deletes its own.
+    private void deleteTemporaryFiles() throws IOException {
+        final List<Path> temporaryFiles;
+        try (Stream<Path> files = Files.list(directory)) {
+            temporaryFiles = files.filter(file -> file.getFileName().toString().endsWith(TEMPORARY_SUFFIX)).toList();
+        }
+        for (final Path file : temporaryFiles) {
+            LOGGER.warn("Deleting {}, left behind by an unfinished snapshot", file);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /// @return the sequences of the files named `prefix<sequence>.log`, in ascending order
+    private List<Long> sequences(final String prefix) throws IOException {
+        final List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(SUFFIX))
+                    .map(name -> name.substring(prefix.length(), name.length() - SUFFIX.length()))
+                    .filter(number -> !number.isEmpty() && number.chars().allMatch(Character::isDigit))
+                    .map(Long::parseLong)
+                    .sorted()
+                    .forEach(sequences::add);
+        }
+        return sequences;
+    }
+}
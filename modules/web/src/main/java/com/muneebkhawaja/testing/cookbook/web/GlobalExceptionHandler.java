@@ -1,5 +1,6 @@
 package com.muneebkhawaja.testing.cookbook.web;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,4 +14,19 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.notFound().build();
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> handlePreconditionFailed(final PreconditionFailedException ignore) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    @ExceptionHandler(ResourceConflictException.class)
+    public ResponseEntity<Object> handleConflict(final ResourceConflictException ignore) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Object> handleBadRequest(final InvalidRequestException ignore) {
+        return ResponseEntity.badRequest().build();
+    }
+
 }
@@ -0,0 +1,14 @@
+package com.muneebkhawaja.testing.cookbook.web;
+
+/**
+ * Domain exception indicating the client sent a request the service cannot act on (e.g., an invalid page token).
+ */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(final String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
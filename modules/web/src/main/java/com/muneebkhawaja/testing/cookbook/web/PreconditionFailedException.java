@@ -0,0 +1,10 @@
+package com.muneebkhawaja.testing.cookbook.web;
+
+/**
+ * Domain exception indicating the resource no longer matches the version a conditional change was based on.
+ */
+public class PreconditionFailedException extends ResourceConflictException {
+    public PreconditionFailedException(final String message) {
+        super(message);
+    }
+}
@@ -6,22 +6,38 @@ import com.muneebkhawaja.web.generated.api.EventsApi;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class EventControllerManualWebMVCTest {
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
+    private EventService service;
 
     @BeforeEach
     void setup() {
-        EventController controller = new EventController(new EventService());
+        service = new EventService();
+        EventController controller = new EventController(service, JsonMapper.shared());
         mockMvc = MockMvcBuilders.standaloneSetup(controller)
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
@@ -45,4 +61,77 @@ class EventControllerManualWebMVCTest {
         ;
     }
 
-}
\ No newline at end of file
+    @DisplayName("Should return 400 When listing events with an invalid page token")
+    @Test
+    void shouldReturn400WhenListingEventsWithAnInvalidPageToken() throws Exception {
+        mockMvc.perform(get(EventsApi.PATH_LIST_EVENTS).param("pageToken", "not-a-token"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Should stream one event per line When exporting events")
+    @Test
+    void shouldStreamOneEventPerLineWhenExportingEvents() throws Exception {
+        service.create(TestEvents.upsertRequest("alpha"));
+        service.create(TestEvents.upsertRequest("beta"));
+        final MvcResult started = mockMvc.perform(get(EventsApi.PATH_EXPORT_EVENTS))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+        final String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        assertThat(body.lines())
+                .hasSize(2)
+                .allSatisfy(line -> assertThat(line).startsWith("{").contains("\"title\""));
+    }
+
+    @DisplayName("Should compress the export When the client accepts gzip")
+    @Test
+    void shouldCompressTheExportWhenTheClientAcceptsGzip() throws Exception {
+        service.create(TestEvents.upsertRequest("alpha"));
+        final MvcResult started = mockMvc.perform(get(EventsApi.PATH_EXPORT_EVENTS)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        assertThat(gunzip(result.getResponse().getContentAsByteArray()).lines())
+                .singleElement()
+                .satisfies(line -> assertThat(line).contains("\"title\":\"alpha\""));
+    }
+
+    @DisplayName("Should answer conditional requests When sending the ETag back")
+    @Test
+    void shouldAnswerConditionalRequestsWhenSendingTheETagBack() throws Exception {
+        final var id = service.create(TestEvents.upsertRequest("alpha")).getId();
+        final String eTag = mockMvc.perform(get(EventsApi.PATH_GET_EVENT, id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(EventsApi.PATH_GET_EVENT, id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        final String replacement = objectMapper.writeValueAsString(TestEvents.upsertRequest("beta"));
+        mockMvc.perform(put(EventsApi.PATH_REPLACE_EVENT, id)
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content(replacement))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+        mockMvc.perform(put(EventsApi.PATH_REPLACE_EVENT, id)
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content(replacement))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    private static String gunzip(final byte[] compressed) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -1,22 +1,32 @@
 package com.muneebkhawaja.testing.cookbook.web;
 
 import com.muneebkhawaja.testing.cookbook.web.support.TestEvents;
+import com.muneebkhawaja.web.generated.model.BatchCreateEventsRequest;
+import com.muneebkhawaja.web.generated.model.BatchEventsResponse;
+import com.muneebkhawaja.web.generated.model.Event;
+import com.muneebkhawaja.web.generated.model.EventPage;
 import com.muneebkhawaja.web.generated.model.Severity;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -24,6 +34,8 @@ import static org.mockito.Mockito.when;
 class EventControllerTest {
     @Mock
     private EventService service;
+    @Spy
+    private JsonMapper jsonMapper = JsonMapper.shared();
     @InjectMocks
     private EventController controller;
 
@@ -41,13 +53,26 @@ class EventControllerTest {
         verify(service).create(request);
     }
 
+    @DisplayName("Should return the service's batch response When creating events in bulk")
+    @Test
+    void shouldReturnTheServicesBatchResponseWhenCreatingEventsInBulk() {
+        final var requests = List.of(TestEvents.upsertRequest("t1"), TestEvents.upsertRequest("t2"));
+        final var batch = new BatchEventsResponse(2, List.of())
+                .events(List.of(TestEvents.event("t1"), TestEvents.event("t2")));
+        when(service.createAll(requests)).thenReturn(batch);
+        final var response = controller.batchCreateEvents(new BatchCreateEventsRequest(requests));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(batch);
+        verify(service).createAll(requests);
+    }
+
     @DisplayName("Should return event When fetching an existing event")
     @Test
     void shouldReturnEventWhenFetchingAnExistingEvent() {
         final var id = UUID.randomUUID();
         final var existingEvent = TestEvents.event(id, "t2");
         when(service.get(id)).thenReturn(Optional.of(existingEvent));
-        final var response = controller.getEvent(id);
+        final var response = controller.getEvent(id, null);
         assertThat(response.getStatusCode())
                 .isEqualTo(HttpStatus.OK);
         assertThat(response.getBody())
@@ -55,17 +80,41 @@ class EventControllerTest {
         verify(service).get(id);
     }
 
+    @DisplayName("Should return 304 with the ETag When the event still matches If-None-Match")
+    @Test
+    void shouldReturn304WithTheETagWhenTheEventStillMatchesIfNoneMatch() {
+        final var id = UUID.randomUUID();
+        final var existingEvent = TestEvents.event(id, "t2").version(3L);
+        when(service.get(id)).thenReturn(Optional.of(existingEvent));
+        final var response = controller.getEvent(id, "\"2\", W/\"3\"");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"3\"");
+        assertThat(response.getBody()).isNull();
+        assertThat(controller.getEvent(id, "\"2\"").getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
     @DisplayName("Should return 404 when fetching an event that does not exist")
     @Test
     void shouldReturn404WhenFetchingAnEventThatDoesNotExist() {
         final var id = UUID.randomUUID();
         when(service.get(id)).thenReturn(Optional.empty());
-        final var response = controller.getEvent(id);
+        final var response = controller.getEvent(id, null);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(response.getBody()).isNull();
         verify(service).get(id);
     }
 
+    @DisplayName("Should return a page of events When listing events")
+    @Test
+    void shouldReturnAPageOfEventsWhenListingEvents() {
+        final var page = new EventPage(List.of(TestEvents.event("t3"))).nextPageToken("next");
+        when(service.list(Severity.WARN, null, null, 50, null)).thenReturn(page);
+        final var response = controller.listEvents(Severity.WARN, null, null, null, null);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(page);
+        verify(service).list(Severity.WARN, null, null, 50, null);
+    }
+
     @DisplayName("Should replace event When replacing an existing event")
     @Test
     void shouldReplaceEventWhenReplacingAnExistingEvent() {
@@ -73,7 +122,7 @@ class EventControllerTest {
         final var upsertRequest = TestEvents.upsertRequest("new");
         final var latestEvent = TestEvents.event(id, "new");
         when(service.replace(id, upsertRequest)).thenReturn(latestEvent);
-        final var response = controller.replaceEvent(id, upsertRequest);
+        final var response = controller.replaceEvent(id, upsertRequest, null);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(latestEvent);
         verify(service).replace(id, upsertRequest);
@@ -85,10 +134,27 @@ class EventControllerTest {
         final var id = UUID.randomUUID();
         final var upsertRequest = TestEvents.upsertRequest("x");
         when(service.replace(id, upsertRequest)).thenThrow(new ResourceNotFoundException("not found"));
-        assertThrows(ResourceNotFoundException.class, () -> controller.replaceEvent(id, upsertRequest));
+        assertThrows(ResourceNotFoundException.class, () -> controller.replaceEvent(id, upsertRequest, null));
         verify(service).replace(id, upsertRequest);
     }
 
+    @DisplayName("Should throw PreconditionFailedException When If-Match names an older version")
+    @Test
+    void shouldThrowPreconditionFailedExceptionWhenIfMatchNamesAnOlderVersion() {
+        final var id = UUID.randomUUID();
+        final var upsertRequest = TestEvents.upsertRequest("x");
+        when(service.replace(eq(id), eq(upsertRequest), any())).thenAnswer(invocation -> {
+            final Predicate<Event> precondition = invocation.getArgument(2);
+            if (!precondition.test(TestEvents.event(id, "current").version(2L))) {
+                throw new PreconditionFailedException("stale");
+            }
+            return TestEvents.event(id, "x").version(3L);
+        });
+        assertThrows(PreconditionFailedException.class, () -> controller.replaceEvent(id, upsertRequest, "\"1\""));
+        assertThrows(PreconditionFailedException.class, () -> controller.replaceEvent(id, upsertRequest, "W/\"2\""));
+        assertThat(controller.replaceEvent(id, upsertRequest, "\"1\", \"2\"").getHeaders().getETag()).isEqualTo("\"3\"");
+    }
+
     @DisplayName("Should update event fields When patching an existing event")
     @Test
     void shouldUpdateEventFieldsWhenPatchingAnExistingEvent() {
@@ -96,7 +162,7 @@ class EventControllerTest {
         final var patchRequest = TestEvents.patchTitle("patched");
         final var latestEvent = TestEvents.event(id, "patched");
         when(service.patch(id, patchRequest)).thenReturn(latestEvent);
-        final var response = controller.patchEvent(id, patchRequest);
+        final var response = controller.patchEvent(id, patchRequest, null);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(latestEvent);
         verify(service).patch(id, patchRequest);
@@ -108,7 +174,7 @@ class EventControllerTest {
         final var id = UUID.randomUUID();
         final var patchRequest = TestEvents.patchTitle("patched");
         when(service.patch(id, patchRequest)).thenThrow(new ResourceNotFoundException("not found"));
-        assertThrows(ResourceNotFoundException.class, () -> controller.patchEvent(id, patchRequest));
+        assertThrows(ResourceNotFoundException.class, () -> controller.patchEvent(id, patchRequest, null));
         verify(service).patch(id, patchRequest);
     }
 
@@ -0,0 +1,206 @@
+package com.muneebkhawaja.testing.cookbook.web;
+
+import com.muneebkhawaja.testing.cookbook.web.support.TestEvents;
+import com.muneebkhawaja.web.generated.model.BatchEventsResponse;
+import com.muneebkhawaja.web.generated.model.BatchItemFailure;
+import com.muneebkhawaja.web.generated.model.Event;
+import com.muneebkhawaja.web.generated.model.EventPage;
+import com.muneebkhawaja.web.generated.model.EventPatchRequest;
+import com.muneebkhawaja.web.generated.model.EventProperties;
+import com.muneebkhawaja.web.generated.model.Severity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventServiceTest {
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final EventService service = new EventService();
+
+    @DisplayName("Should page through every event in timestamp order When following the page tokens")
+    @Test
+    void shouldPageThroughEveryEventInTimestampOrderWhenFollowingThePageTokens() {
+        final Event third = create("c", Severity.INFO, T0.plusMinutes(2));
+        final Event first = create("a", Severity.WARN, T0);
+        final Event second = create("b", Severity.ERROR, T0.plusMinutes(1));
+
+        final EventPage page1 = service.list(null, null, null, 2, null);
+        assertThat(page1.getEvents()).containsExactly(first, second);
+        assertThat(page1.getNextPageToken()).isNotNull();
+
+        final EventPage page2 = service.list(null, null, null, 2, page1.getNextPageToken());
+        assertThat(page2.getEvents()).containsExactly(third);
+        assertThat(page2.getNextPageToken()).isNull();
+    }
+
+    @DisplayName("Should return only matching events When filtering by severity and timestamp range")
+    @Test
+    void shouldReturnOnlyMatchingEventsWhenFilteringBySeverityAndTimestampRange() {
+        create("before", Severity.ERROR, T0.minusSeconds(1));
+        final Event atFrom = create("at-from", Severity.ERROR, T0);
+        create("other-severity", Severity.INFO, T0.plusSeconds(1));
+        create("at-to", Severity.ERROR, T0.plusMinutes(1));
+        create("no-timestamp", Severity.ERROR, null);
+
+        assertThat(service.list(Severity.ERROR, T0, T0.plusMinutes(1), 10, null).getEvents())
+                .containsExactly(atFrom);
+        assertThat(service.list(null, null, T0.plusSeconds(2), 10, null).getEvents())
+                .extracting(Event::getTitle)
+                .containsExactly("before", "at-from", "other-severity");
+        assertThat(service.list(Severity.ERROR, null, null, 10, null).getEvents())
+                .extracting(Event::getTitle)
+                .containsExactly("no-timestamp", "before", "at-from", "at-to");
+    }
+
+    @DisplayName("Should move the event in the indexes When it is replaced, patched or deleted")
+    @Test
+    void shouldMoveTheEventInTheIndexesWhenItIsReplacedPatchedOrDeleted() {
+        final Event event = create("a", Severity.INFO, T0);
+        service.replace(event.getId(), TestEvents.upsertRequest("a", Severity.WARN, T0.plusHours(1), "d"));
+        assertThat(service.list(Severity.INFO, null, null, 10, null).getEvents()).isEmpty();
+        assertThat(service.list(Severity.WARN, T0.plusHours(1), null, 10, null).getEvents()).hasSize(1);
+
+        service.patch(event.getId(), new EventPatchRequest(Set.of(EventPatchRequest.UpdateMaskEnum.SEVERITY))
+                .event(new EventProperties().severity(Severity.ERROR)));
+        assertThat(service.list(Severity.WARN, null, null, 10, null).getEvents()).isEmpty();
+        assertThat(service.list(Severity.ERROR, null, null, 10, null).getEvents())
+                .extracting(Event::getTimestamp)
+                .containsExactly(T0.plusHours(1));
+
+        service.delete(event.getId());
+        assertThat(service.list(null, null, null, 10, null).getEvents()).isEmpty();
+    }
+
+    @DisplayName("Should bump the version When the event changes")
+    @Test
+    void shouldBumpTheVersionWhenTheEventChanges() {
+        final Event event = create("a", Severity.INFO, T0);
+        assertThat(event.getVersion()).isEqualTo(1L);
+        assertThat(service.replace(event.getId(), TestEvents.upsertRequest("b")).getVersion()).isEqualTo(2L);
+        assertThat(service.patch(event.getId(), TestEvents.patchTitle("c")).getVersion()).isEqualTo(3L);
+        assertThat(service.replaceAll(List.of(new Event(event.getId()).title("d"))).getEvents())
+                .extracting(Event::getVersion)
+                .containsExactly(4L);
+    }
+
+    @DisplayName("Should fail only that item When a batch replace names a version the event no longer has")
+    @Test
+    void shouldFailOnlyThatItemWhenABatchReplaceNamesAVersionTheEventNoLongerHas() {
+        final Event stale = create("a", Severity.INFO, T0);
+        final Event current = create("b", Severity.INFO, T0);
+        service.replace(stale.getId(), TestEvents.upsertRequest("a2"));
+
+        final BatchEventsResponse response = service.replaceAll(List.of(
+                new Event(stale.getId()).title("lost update").version(1L),
+                new Event(current.getId()).title("b2").version(1L)));
+
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getEvents()).extracting(Event::getTitle, Event::getVersion).containsExactly(tuple("b2", 2L));
+        assertThat(response.getFailures())
+                .extracting(BatchItemFailure::getIndex, BatchItemFailure::getStatus)
+                .containsExactly(tuple(0, 412));
+        assertThat(service.get(stale.getId())).hasValueSatisfying(event -> {
+            assertThat(event.getTitle()).isEqualTo("a2");
+            assertThat(event.getVersion()).isEqualTo(2L);
+        });
+    }
+
+    @DisplayName("Should leave the event unchanged When the precondition fails")
+    @Test
+    void shouldLeaveTheEventUnchangedWhenThePreconditionFails() {
+        final Event event = create("a", Severity.INFO, T0);
+        assertThrows(PreconditionFailedException.class, () -> service.replace(event.getId(),
+                TestEvents.upsertRequest("b"), current -> current.getVersion() == 2L));
+        assertThrows(PreconditionFailedException.class, () -> service.patch(event.getId(),
+                TestEvents.patchTitle("b"), current -> current.getVersion() == 2L));
+        assertThat(service.get(event.getId())).contains(event);
+        assertThat(service.replace(event.getId(), TestEvents.upsertRequest("b"), current -> current.getVersion() == 1L)
+                .getTitle()).isEqualTo("b");
+    }
+
+    @DisplayName("Should keep a full page size When many events share a timestamp")
+    @Test
+    void shouldKeepAFullPageSizeWhenManyEventsShareATimestamp() {
+        for (int i = 0; i < 5; i++) {
+            create("e" + i, Severity.INFO, T0);
+        }
+        final List<Event> seen = new ArrayList<>();
+        String pageToken = null;
+        do {
+            final EventPage page = service.list(Severity.INFO, T0, null, 2, pageToken);
+            seen.addAll(page.getEvents());
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+    }
+
+    @DisplayName("Should reject the request When the page token or size is invalid")
+    @Test
+    void shouldRejectTheRequestWhenThePageTokenOrSizeIsInvalid() {
+        assertThrows(InvalidRequestException.class, () -> service.list(null, null, null, 10, "not-a-token"));
+        assertThrows(InvalidRequestException.class, () -> service.list(null, null, null, 0, null));
+        assertThrows(InvalidRequestException.class, () -> service.list(null, null, null, EventService.MAXIMUM_PAGE_SIZE + 1, null));
+    }
+
+    @DisplayName("Should create, replace and delete every event When applying batches")
+    @Test
+    void shouldCreateReplaceAndDeleteEveryEventWhenApplyingBatches() {
+        final BatchEventsResponse created = service.createAll(List.of(
+                TestEvents.upsertRequest("a", Severity.INFO, T0, "d"),
+                TestEvents.upsertRequest("b", Severity.INFO, T0.plusMinutes(1), "d")));
+        assertThat(created.getSucceeded()).isEqualTo(2);
+        assertThat(created.getFailures()).isEmpty();
+        final List<Event> events = created.getEvents();
+        assertThat(service.list(Severity.INFO, null, null, 10, null).getEvents()).containsExactlyElementsOf(events);
+
+        final BatchEventsResponse replaced = service.replaceAll(List.of(
+                new Event(events.get(0).getId()).title("a2").severity(Severity.WARN).timestamp(T0)));
+        assertThat(replaced.getSucceeded()).isEqualTo(1);
+        assertThat(replaced.getFailures()).isEmpty();
+        assertThat(service.list(Severity.WARN, null, null, 10, null).getEvents())
+                .containsExactlyElementsOf(replaced.getEvents())
+                .extracting(Event::getTitle)
+                .containsExactly("a2");
+
+        final BatchEventsResponse deleted = service.deleteAll(events.stream().map(Event::getId).toList());
+        assertThat(deleted.getSucceeded()).isEqualTo(2);
+        assertThat(deleted.getEvents()).isNull();
+        assertThat(deleted.getFailures()).isEmpty();
+        assertThat(service.list(null, null, null, 10, null).getEvents()).isEmpty();
+    }
+
+    @DisplayName("Should fail only that item When a batch replaces a missing event")
+    @Test
+    void shouldFailOnlyThatItemWhenABatchReplacesAMissingEvent() {
+        final Event existing = create("a", Severity.INFO, T0);
+        final UUID missing = UUID.randomUUID();
+        final BatchEventsResponse response = service.replaceAll(List.of(
+                new Event(missing).title("x"),
+                new Event(existing.getId()).title("a2"),
+                new Event().title("no-id")));
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getEvents()).extracting(Event::getTitle).containsExactly("a2");
+        assertThat(response.getFailures())
+                .extracting(BatchItemFailure::getIndex, BatchItemFailure::getStatus)
+                .containsExactly(tuple(0, 404), tuple(2, 400));
+        assertThat(response.getFailures().getFirst().getError()).contains(missing.toString());
+        assertThat(service.get(existing.getId())).hasValueSatisfying(event -> assertThat(event.getTitle()).isEqualTo("a2"));
+        assertThrows(InvalidRequestException.class,
+                () -> service.deleteAll(Collections.nCopies(EventService.MAXIMUM_BATCH_SIZE + 1, missing)));
+    }
+
+    private Event create(final String title, final Severity severity, final OffsetDateTime timestamp) {
+        return service.create(TestEvents.upsertRequest(title, severity, timestamp, "description"));
+    }
+}
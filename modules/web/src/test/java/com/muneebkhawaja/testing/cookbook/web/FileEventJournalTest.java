@@ -0,0 +1,249 @@
+package com.muneebkhawaja.testing.cookbook.web;
+
+import com.muneebkhawaja.testing.cookbook.web.support.TestEvents;
+import com.muneebkhawaja.web.generated.model.Event;
+import com.muneebkhawaja.web.generated.model.Severity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileEventJournalTest {
+    private static final int WRITER_COUNT = 4;
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @TempDir
+    private Path directory;
+
+    @DisplayName("Should recover every change When restarting from the log")
+    @Test
+    void shouldRecoverEveryChangeWhenRestartingFromTheLog() {
+        final Event replaced;
+        final Event kept;
+        try (FileEventJournal journal = journal()) {
+            final EventService service = new EventService(journal);
+            final Event deleted = service.create(TestEvents.upsertRequest("deleted"));
+            kept = service.create(TestEvents.upsertRequest("kept", Severity.INFO, T0, "d"));
+            replaced = service.replace(service.create(TestEvents.upsertRequest("old")).getId(),
+                    TestEvents.upsertRequest("new", Severity.ERROR, T0.plusHours(1), "d"));
+            service.delete(deleted.getId());
+        }
+        try (FileEventJournal journal = journal()) {
+            final EventService service = new EventService(journal);
+            assertThat(service.get(kept.getId())).contains(kept);
+            assertThat(service.get(replaced.getId())).contains(replaced);
+            assertThat(service.list(null, null, null, 10, null).getEvents()).containsExactly(kept, replaced);
+        }
+    }
+
+    @DisplayName("Should replace the log with a snapshot When compacting")
+    @Test
+    void shouldReplaceTheLogWithASnapshotWhenCompacting() throws IOException {
+        final Event before;
+        final Event after;
+        try (FileEventJournal journal = journal()) {
+            final EventService service = new EventService(journal);
+            for (int i = 0; i < 10; i++) {
+                service.delete(service.create(TestEvents.upsertRequest("churn-" + i)).getId());
+            }
+            before = service.create(TestEvents.upsertRequest("before"));
+            journal.snapshot();
+            after = service.create(TestEvents.upsertRequest("after"));
+        }
+        assertThat(files()).containsExactlyInAnyOrder("snapshot-2.log", "wal-2.log");
+        try (FileEventJournal journal = journal()) {
+            final EventService service = new EventService(journal);
+            assertThat(service.list(null, null, null, 10, null).getEvents()).containsExactlyInAnyOrder(before, after);
+        }
+    }
+
+    @DisplayName("Should drop the torn record When the log ends mid-record")
+    @Test
+    void shouldDropTheTornRecordWhenTheLogEndsMidRecord() throws IOException {
+        final Event event;
+        try (FileEventJournal journal = journal()) {
+            event = new EventService(journal).create(TestEvents.upsertRequest("intact"));
+        }
+        final Path log = directory.resolve("wal-1.log");
+        final long intactSize = Files.size(log);
+        Files.write(log, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+        try (FileEventJournal journal = journal()) {
+            assertThat(new EventService(journal).list(null, null, null, 10, null).getEvents()).containsExactly(event);
+        }
+        assertThat(Files.size(log)).isEqualTo(intactSize);
+    }
+
+    @DisplayName("Should recover every change When snapshots run while events are written")
+    @Test
+    void shouldRecoverEveryChangeWhenSnapshotsRunWhileEventsAreWritten() throws Exception {
+        final List<Event> expected = new ArrayList<>();
+        try (FileEventJournal journal = journal();
+             ExecutorService writers = Executors.newFixedThreadPool(WRITER_COUNT)) {
+            final EventService service = new EventService(journal);
+            final List<Future<?>> writes = new ArrayList<>();
+            for (int writer = 0; writer < WRITER_COUNT; writer++) {
+                final String prefix = "writer-" + writer + "-";
+                writes.add(writers.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        final Event created = service.create(TestEvents.upsertRequest(prefix + i));
+                        service.replace(created.getId(), TestEvents.upsertRequest(prefix + i + "-replaced"));
+                        if (i % 3 == 0) {
+                            service.delete(created.getId());
+                        }
+                    }
+                }));
+            }
+            do {
+                journal.snapshot();
+            } while (writes.stream().anyMatch(write -> !write.isDone()));
+            for (final Future<?> write : writes) {
+                write.get();
+            }
+            service.iterator().forEachRemaining(expected::add);
+        }
+        try (FileEventJournal journal = journal()) {
+            final List<Event> recovered = new ArrayList<>();
+            new EventService(journal).iterator().forEachRemaining(recovered::add);
+            assertThat(recovered).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @DisplayName("Should wait for a change in flight When starting a snapshot")
+    @Test
+    void shouldWaitForAChangeInFlightWhenStartingASnapshot() throws Exception {
+        final Event event = TestEvents.event("in flight");
+        try (FileEventJournal journal = journal()) {
+            final Map<UUID, Event> store = new ConcurrentHashMap<>();
+            journal.open(_ -> {
+            }, () -> store.values().iterator());
+            final CountDownLatch recorded = new CountDownLatch(1);
+            final CountDownLatch apply = new CountDownLatch(1);
+            final CompletableFuture<Event> change = CompletableFuture.supplyAsync(() -> journal.change(() -> {
+                journal.put(event);
+                recorded.countDown();
+                awaitUninterruptibly(apply);
+                return store.put(event.getId(), event);
+            }));
+            recorded.await();
+            final CompletableFuture<Void> snapshot = CompletableFuture.runAsync(() -> {
+                try {
+                    journal.snapshot();
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+            while (!journal.isRotationQueued()) { // the snapshot blocks on the change's share of the lock
+                assertThat(snapshot).as("snapshot must wait for the change in flight").isNotDone();
+                Thread.onSpinWait();
+            }
+            assertThat(snapshot).isNotDone();
+            apply.countDown();
+            change.get();
+            snapshot.get();
+        }
+        try (FileEventJournal journal = journal()) {
+            assertThat(new EventService(journal).get(event.getId())).contains(event);
+        }
+    }
+
+    @DisplayName("Should give recovered events the first version When they were journaled without one")
+    @Test
+    void shouldGiveRecoveredEventsTheFirstVersionWhenTheyWereJournaledWithoutOne() {
+        final Event unversioned = new Event(UUID.randomUUID()).title("before versions");
+        try (FileEventJournal journal = journal()) {
+            journal.open(_ -> {
+            }, Collections::emptyIterator);
+            journal.put(unversioned);
+        }
+        try (FileEventJournal journal = journal()) {
+            final EventService service = new EventService(journal);
+            final Event recovered = service.get(unversioned.getId()).orElseThrow();
+            assertThat(recovered.getVersion()).isEqualTo(1L);
+            assertThat(ETags.of(recovered)).isEqualTo("\"1\"");
+            assertThat(service.replace(unversioned.getId(), TestEvents.upsertRequest("after")).getVersion()).isEqualTo(2L);
+        }
+    }
+
+    @DisplayName("Should refuse to start When a snapshot is corrupt")
+    @Test
+    void shouldRefuseToStartWhenASnapshotIsCorrupt() throws IOException {
+        try (FileEventJournal journal = journal()) {
+            new EventService(journal).create(TestEvents.upsertRequest("snapshotted"));
+            journal.snapshot();
+        }
+        final Path snapshot = directory.resolve("snapshot-2.log");
+        final byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 2] ^= 1;
+        Files.write(snapshot, bytes);
+        try (FileEventJournal journal = journal()) {
+            assertThatThrownBy(() -> new EventService(journal)).isInstanceOf(UncheckedIOException.class);
+        }
+        assertThat(Files.readAllBytes(snapshot)).isEqualTo(bytes); // left for an operator to inspect
+    }
+
+    @DisplayName("Should delete the temporary snapshot When writing the snapshot fails")
+    @Test
+    void shouldDeleteTheTemporarySnapshotWhenWritingTheSnapshotFails() throws IOException {
+        try (FileEventJournal journal = journal()) {
+            journal.open(_ -> {
+            }, () -> {
+                throw new IllegalStateException("store unavailable");
+            });
+            assertThatThrownBy(journal::snapshot).isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(files()).containsExactlyInAnyOrder("wal-1.log", "wal-2.log");
+    }
+
+    @DisplayName("Should delete temporary snapshots When opening after a crash mid-snapshot")
+    @Test
+    void shouldDeleteTemporarySnapshotsWhenOpeningAfterACrashMidSnapshot() throws IOException {
+        Files.write(directory.resolve("snapshot-3.tmp"), new byte[]{1, 2, 3});
+        try (FileEventJournal journal = journal()) {
+            new EventService(journal);
+        }
+        assertThat(files()).containsExactly("wal-1.log");
+    }
+
+    private FileEventJournal journal() {
+        return new FileEventJournal(directory, Duration.ofMillis(10), Duration.ofHours(1), JsonMapper.shared());
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(interruptedException);
+        }
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+}
@@ -36,7 +36,7 @@ public final class TestEvents {
     }
 
     public static Event event(final UUID id, final String title) {
-        return new Event(id).title(title);
+        return new Event(id).title(title).version(1L);
     }
 
     public static EventPatchRequest patchTitle(final String newTitle) {